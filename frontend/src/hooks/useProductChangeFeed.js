@@ -0,0 +1,37 @@
+import { useEffect } from 'react';
+import { useQueryClient } from 'react-query';
+
+import { API_BASE_URL } from '../services/productService';
+
+const CHANGE_EVENTS = ['created', 'updated', 'deleted', 'reset'];
+
+// Refetch product queries when the server reports a committed change, instead of polling.
+// EventSource reconnects on its own and resumes from Last-Event-ID; a `reset` event means
+// changes were missed, which the same refetch covers.
+export const useProductChangeFeed = (debounceMs = 250) => {
+  const queryClient = useQueryClient();
+
+  useEffect(() => {
+    if (typeof EventSource === 'undefined') {
+      return undefined;
+    }
+    const source = new EventSource(`${API_BASE_URL}/products/stream`);
+    let timer = null;
+
+    // Bursts (batch writes, replay after reconnecting) collapse into one refetch
+    const onChange = () => {
+      if (timer === null) {
+        timer = setTimeout(() => {
+          timer = null;
+          queryClient.invalidateQueries('products');
+        }, debounceMs);
+      }
+    };
+
+    CHANGE_EVENTS.forEach((name) => source.addEventListener(name, onChange));
+    return () => {
+      clearTimeout(timer);
+      source.close();
+    };
+  }, [queryClient, debounceMs]);
+};
\ No newline at end of file
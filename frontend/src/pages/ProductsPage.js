@@ -15,8 +15,7 @@ import {
   DialogActions,
   CircularProgress,
   Alert,
-  Chip,
-  Pagination
+  Chip
 } from '@mui/material';
 import {
   Add as AddIcon,
@@ -24,18 +23,18 @@ import {
   FilterList as FilterIcon,
   Refresh as RefreshIcon
 } from '@mui/icons-material';
-import { useQuery, useMutation, useQueryClient } from 'react-query';
+import { useQuery, useInfiniteQuery, useMutation, useQueryClient } from 'react-query';
 import { toast } from 'react-toastify';
 
 import ProductCard from '../components/ProductCard';
 import ProductForm from '../components/ProductForm';
 import { productService } from '../services/productService';
+import { useProductChangeFeed } from '../hooks/useProductChangeFeed';
 
 const ProductsPage = () => {
   const [searchTerm, setSearchTerm] = useState('');
   const [minPrice, setMinPrice] = useState('');
   const [maxPrice, setMaxPrice] = useState('');
-  const [page, setPage] = useState(0);
   const [pageSize] = useState(12);
   const [formOpen, setFormOpen] = useState(false);
   const [selectedProduct, setSelectedProduct] = useState(null);
@@ -46,29 +45,37 @@ const ProductsPage = () => {
 
   const queryClient = useQueryClient();
 
-  // Fetch products with pagination
-  const {
-    data: productsData,
-    isLoading,
-    error,
-    refetch
-  } = useQuery(
-    ['products', page, pageSize, searchTerm, minPrice, maxPrice],
-    async () => {
-      if (searchTerm) {
-        return { content: await productService.searchProducts(searchTerm), totalPages: 1 };
-      }
-      if (minPrice && maxPrice) {
-        return { content: await productService.getProductsByPriceRange(minPrice, maxPrice), totalPages: 1 };
-      }
-      return await productService.getProducts(page, pageSize);
-    },
+  // Changes from other users arrive over the change feed; no polling needed
+  useProductChangeFeed();
+
+  const filtered = Boolean(searchTerm || (minPrice && maxPrice));
+
+  // Unfiltered catalog: cursor pages appended on "Load more", so deep pages cost no OFFSET scan
+  const listQuery = useInfiniteQuery(
+    ['products', 'list', pageSize],
+    ({ pageParam }) => productService.getProductsAfter(pageParam, pageSize),
     {
+      getNextPageParam: (lastPage) => lastPage.nextCursor ?? undefined,
+      enabled: !filtered,
+      staleTime: 30000
+    }
+  );
+
+  // Search and price range return every match in one response
+  const filterQuery = useQuery(
+    ['products', 'filtered', searchTerm, minPrice, maxPrice],
+    () => (searchTerm
+      ? productService.searchProducts(searchTerm)
+      : productService.getProductsByPriceRange(minPrice, maxPrice)),
+    {
+      enabled: filtered,
       keepPreviousData: true,
       staleTime: 30000
     }
   );
 
+  const { isLoading, error, refetch } = filtered ? filterQuery : listQuery;
+
   // Create product mutation
   const createMutation = useMutation(productService.createProduct, {
     onSuccess: () => {
@@ -142,7 +149,6 @@ const ProductsPage = () => {
   };
 
   const handleSearch = () => {
-    setPage(0);
     refetch();
   };
 
@@ -150,11 +156,11 @@ const ProductsPage = () => {
     setSearchTerm('');
     setMinPrice('');
     setMaxPrice('');
-    setPage(0);
   };
 
-  const products = productsData?.content || [];
-  const totalPages = productsData?.totalPages || 0;
+  const products = filtered
+    ? filterQuery.data || []
+    : listQuery.data?.pages.flatMap((cursorPage) => cursorPage.content) || [];
 
   if (error) {
     return (
@@ -299,16 +305,17 @@ const ProductsPage = () => {
             ))}
           </Grid>
 
-          {/* Pagination */}
-          {totalPages > 1 && (
+          {/* Load more */}
+          {!filtered && listQuery.hasNextPage && (
             <Box display="flex" justifyContent="center" mt={4}>
-              <Pagination
-                count={totalPages}
-                page={page + 1}
-                onChange={(e, newPage) => setPage(newPage - 1)}
-                color="primary"
+              <Button
+                variant="outlined"
                 size="large"
-              />
+                onClick={() => listQuery.fetchNextPage()}
+                disabled={listQuery.isFetchingNextPage}
+              >
+                {listQuery.isFetchingNextPage ? 'Loading...' : 'Load more'}
+              </Button>
             </Box>
           )}
         </>
@@ -1,6 +1,6 @@
 import axios from 'axios';
 
-const API_BASE_URL = process.env.REACT_APP_API_URL || '/api/v1';
+export const API_BASE_URL = process.env.REACT_APP_API_URL || '/api/v1';
 
 const api = axios.create({
   baseURL: API_BASE_URL,
@@ -27,6 +27,14 @@ export const productService = {
     return response.data;
   },
 
+  // Get the next page of products after an opaque cursor (infinite scroll)
+  getProductsAfter: async (after = null, size = 20, sortBy = 'id', sortDir = 'asc') => {
+    const response = await api.get('/products', {
+      params: { cursor: true, size, sortBy, sortDir, ...(after ? { after } : {}) }
+    });
+    return response.data;
+  },
+
   // Get all products without pagination
   getAllProducts: async () => {
     const response = await api.get('/products');
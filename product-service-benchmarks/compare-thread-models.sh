@@ -0,0 +1,26 @@
+#!/bin/sh
+# Runs the product-service load test twice, on Tomcat's platform-thread pool and
+# on virtual threads, against a simulated blocking database latency, and prints
+# both summary tables. Requires JDK 21. Usage:
+#   ./compare-thread-models.sh [rate/s] [db latency] [tomcat threads]
+set -e
+
+RATE=${1:-800}
+DB_LATENCY=${2:-20ms}
+TOMCAT_THREADS=${3:-50}
+
+cd "$(dirname "$0")/../product-service"
+
+for VIRTUAL in false true; do
+    echo "=== product.threads.virtual=$VIRTUAL rate=$RATE/s db-latency=$DB_LATENCY tomcat-threads=$TOMCAT_THREADS"
+    mvn -q -P java21,load-test verify \
+        -Dmaven.test.failure.ignore=true \
+        -Dproduct.threads.virtual=$VIRTUAL \
+        -Dserver.tomcat.threads.max=$TOMCAT_THREADS \
+        -Dload.rate=$RATE \
+        -Dload.db-latency=$DB_LATENCY \
+        -Dload.mix=read:70,search:10,price-range:10,write:10 \
+        | sed -n '/^endpoint/,/^total/p'
+    mkdir -p ../product-service-benchmarks/target/thread-models
+    cp -r target/load-test ../product-service-benchmarks/target/thread-models/virtual-$VIRTUAL
+done
@@ -0,0 +1,61 @@
+#!/bin/sh
+# Measures product-service time-to-first-request: from launching the JVM until
+# GET /api/v1/products/1 first answers 200. Compares the plain fat jar, the
+# fast-startup profile, and the fast-startup profile on an exploded classpath
+# with a class data sharing archive (what the Docker image runs). Requires JDK
+# 13+ and a packaged product-service (mvn package -DskipTests). Usage:
+#   ./measure-startup.sh [runs] [port]
+set -e
+
+RUNS=${1:-5}
+PORT=${2:-18081}
+MAIN=com.example.productservice.ProductServiceApplication
+
+cd "$(dirname "$0")"
+OUT=$PWD/target/startup
+JAR=$(ls "$PWD"/../product-service/target/*-exec.jar)
+rm -rf "$OUT" && mkdir -p "$OUT/app"
+
+(cd "$OUT/app" && jar xf "$JAR" \
+    && { printf -- '-cp BOOT-INF/classes'; for lib in BOOT-INF/lib/*.jar; do printf ':%s' "$lib"; done; echo; } > ../app.args)
+(cd "$OUT/app" && java -XX:ArchiveClassesAtExit=../app.jsa -Dspring.profiles.active=fast-startup \
+    -Dproduct.startup.exit-after-ready=true -Dserver.port=$PORT @../app.args $MAIN > ../training.log 2>&1)
+
+now_ms() {
+    echo $(($(date +%s%N) / 1000000))
+}
+
+# Starts the JVM given as arguments, waits for the first successful read and prints the milliseconds
+first_request_ms() {
+    start=$(now_ms)
+    "$@" -Dserver.port=$PORT > "$OUT/run.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/api/v1/products/1"; do
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "product-service exited, see $OUT/run.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    echo $(($(now_ms) - start))
+    kill $pid && wait $pid 2>/dev/null || true
+}
+
+measure() {
+    name=$1
+    shift
+    total=0
+    results=""
+    for i in $(seq "$RUNS"); do
+        ms=$(first_request_ms "$@")
+        total=$((total + ms))
+        results="$results $ms"
+    done
+    printf '%-28s mean %6d ms  runs:%s\n' "$name" $((total / RUNS)) "$results"
+}
+
+echo "time to first request over $RUNS runs"
+measure "jar" java -jar "$JAR"
+measure "jar fast-startup" java -Dspring.profiles.active=fast-startup -jar "$JAR"
+cd "$OUT/app"
+measure "exploded fast-startup cds" java -XX:SharedArchiveFile=../app.jsa -Dspring.profiles.active=fast-startup @../app.args $MAIN
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.example.productservice.benchmarks;
+
+import com.example.productservice.ProductServiceApplication;
+import com.example.productservice.model.Product;
+import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.service.ProductBatchService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the real application against a private in-memory H2 database and seeds
+ * it with a deterministic catalog of the requested size.
+ */
+public final class BenchmarkCatalog {
+
+    static final String[] WORDS = {
+        "laptop", "phone", "monitor", "keyboard", "mouse", "headphones", "camera", "speaker",
+        "tablet", "router", "charger", "cable", "wireless", "gaming", "portable", "premium",
+        "compact", "ergonomic", "bluetooth", "4k", "usb", "smart", "pro", "mini"
+    };
+
+    private final ConfigurableApplicationContext context;
+    private final int size;
+    private final long firstId;
+
+    private BenchmarkCatalog(ConfigurableApplicationContext context, int size) {
+        this.context = context;
+        this.size = size;
+        this.firstId = context.getBean(ProductRepository.class)
+                .findAll(PageRequest.of(0, 1, Sort.by("id"))).getContent().get(0).getId();
+    }
+
+    public static BenchmarkCatalog start(int size) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + size + ";DB_CLOSE_DELAY=-1",
+                        "spring.sql.init.mode=never",
+                        "product.batch.chunk-size=5000",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.productservice=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                .run();
+        context.getBean(ProductBatchService.class).createProducts(generate(size, 42L), result -> { });
+        return new BenchmarkCatalog(context, size);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // Pooled sequence ids of the seeded rows are dense from the first one
+    public long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(size);
+    }
+
+    public void close() {
+        context.close();
+    }
+
+    public static Product product(long n, Random random) {
+        String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " " + WORDS[random.nextInt(WORDS.length)];
+        BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+        return new Product("Product " + n + " " + WORDS[(int) (n % WORDS.length)], description, price);
+    }
+
+    private static Iterator<Product> generate(int size, long seed) {
+        Random random = new Random(seed);
+        AtomicLong next = new AtomicLong();
+        return new Iterator<Product>() {
+            @Override
+            public boolean hasNext() {
+                return next.get() < size;
+            }
+
+            @Override
+            public Product next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return product(next.getAndIncrement(), random);
+            }
+        };
+    }
+}
\ No newline at end of file
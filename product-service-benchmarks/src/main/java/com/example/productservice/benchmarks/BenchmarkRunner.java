@@ -0,0 +1,45 @@
+package com.example.productservice.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JMH entry point with the GC profiler always on and results written to
+ * target/jmh-result.json, so runs can be diffed between commits. Any regular
+ * JMH option (benchmark regex, -p catalogSize=1000, -f, -wi...) still applies.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(split(args)))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+
+    // exec:exec hands ${jmh.args} over as a single argument
+    private static String[] split(String[] args) {
+        List<String> parts = new ArrayList<>();
+        for (String arg : args) {
+            for (String part : arg.trim().split("\\s+")) {
+                if (!part.isEmpty()) {
+                    parts.add(part);
+                }
+            }
+        }
+        return parts.toArray(new String[0]);
+    }
+}
\ No newline at end of file
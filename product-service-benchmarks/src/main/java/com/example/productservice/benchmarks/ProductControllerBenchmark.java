@@ -0,0 +1,95 @@
+package com.example.productservice.benchmarks;
+
+import com.example.productservice.controller.ProductController;
+import com.example.productservice.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * The controller path in-process: request mapping, argument binding, service
+ * call and JSON message conversion, without the socket and Tomcat in between.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProductControllerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private BenchmarkCatalog catalog;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = BenchmarkCatalog.start(catalogSize);
+        ObjectMapper objectMapper = catalog.getBean(ObjectMapper.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(catalog.getBean(ProductController.class))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getProductById() throws Exception {
+        return mockMvc.perform(get("/api/v1/products/{id}", catalog.randomId())).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getAllProductsPaginated() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(Math.max(1, catalogSize / 20));
+        return mockMvc.perform(get("/api/v1/products")
+                .param("paginated", "true")
+                .param("page", String.valueOf(page))
+                .param("size", "20"))
+                .andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getAllProductsPaginatedWithFields() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(Math.max(1, catalogSize / 20));
+        return mockMvc.perform(get("/api/v1/products")
+                .param("paginated", "true")
+                .param("page", String.valueOf(page))
+                .param("size", "20")
+                .param("fields", "id,name,price"))
+                .andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse searchProducts() throws Exception {
+        String[] words = BenchmarkCatalog.WORDS;
+        return mockMvc.perform(get("/api/v1/products/search")
+                .param("keyword", words[ThreadLocalRandom.current().nextInt(words.length)]))
+                .andReturn().getResponse();
+    }
+}
\ No newline at end of file
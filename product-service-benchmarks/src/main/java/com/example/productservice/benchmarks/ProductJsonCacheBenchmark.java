@@ -0,0 +1,133 @@
+package com.example.productservice.benchmarks;
+
+import com.example.productservice.cache.ProductJsonCache;
+import com.example.productservice.controller.ProductJsonHttpMessageConverter;
+import com.example.productservice.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a product and product lists through Spring's Jackson converter, as a
+ * plain {@code ResponseEntity<Product>} is written, against the fragment
+ * converter serving pre-encoded bytes from a warm {@link ProductJsonCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductJsonCacheBenchmark {
+
+    @Param({"1", "20", "1000"})
+    public int items;
+
+    private MappingJackson2HttpMessageConverter jacksonConverter;
+    private ProductJsonHttpMessageConverter fragmentConverter;
+    private Product product;
+    private List<Product> products;
+    private BufferMessage message;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jacksonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        fragmentConverter = new ProductJsonHttpMessageConverter(
+                new ProductJsonCache(objectMapper, 10_000, Duration.ofHours(1), new SimpleMeterRegistry()), objectMapper);
+
+        Random random = new Random(42);
+        products = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Product next = BenchmarkCatalog.product(i, random);
+            next.setId((long) i + 1);
+            next.setCreatedAt(LocalDateTime.now());
+            next.setUpdatedAt(LocalDateTime.now());
+            next.setVersion(0L);
+            products.add(next);
+        }
+        product = products.get(0);
+        message = new BufferMessage();
+        // Warm the fragment cache, as steady-state reads of unchanged products would
+        fragmentConverter.write(products, products.getClass(), MediaType.APPLICATION_JSON, message);
+    }
+
+    @Benchmark
+    public int jacksonProduct() throws IOException {
+        return write(jacksonConverter::write, product);
+    }
+
+    @Benchmark
+    public int fragmentProduct() throws IOException {
+        return write(fragmentConverter::write, product);
+    }
+
+    @Benchmark
+    public int jacksonList() throws IOException {
+        return write(jacksonConverter::write, products);
+    }
+
+    @Benchmark
+    public int fragmentList() throws IOException {
+        return write(fragmentConverter::write, products);
+    }
+
+    private int write(Writer writer, Object value) throws IOException {
+        message.reset();
+        writer.write(value, value.getClass(), MediaType.APPLICATION_JSON, message);
+        return message.body.size();
+    }
+
+    private interface Writer {
+        void write(Object value, Type type, MediaType contentType, HttpOutputMessage message)
+                throws IOException;
+    }
+
+    // Reused response buffer, so both sides measure encoding rather than allocation of the output
+    private static final class BufferMessage implements HttpOutputMessage {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256 * 1024);
+        private HttpHeaders headers = new HttpHeaders();
+
+        void reset() {
+            body.reset();
+            headers = new HttpHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.example.productservice.benchmarks;
+
+import com.example.productservice.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product JSON serialization with the same ObjectMapper configuration Spring
+ * Boot gives the application; no database involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter productWriter;
+    private Product product;
+    private List<Product> page;
+    private byte[] productJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        productWriter = objectMapper.writerFor(Product.class);
+        Random random = new Random(42);
+        page = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Product next = BenchmarkCatalog.product(i, random);
+            next.setId((long) i + 1);
+            next.setCreatedAt(LocalDateTime.now());
+            next.setUpdatedAt(LocalDateTime.now());
+            page.add(next);
+        }
+        product = page.get(0);
+        productJson = productWriter.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws Exception {
+        return productWriter.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] serializePageOf100() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public Product deserializeProduct() throws Exception {
+        return objectMapper.readValue(productJson, Product.class);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.example.productservice.benchmarks;
+
+import com.example.productservice.model.Product;
+import com.example.productservice.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service-layer hot paths against a seeded H2 catalog. Throughput plus
+ * SampleTime (p50/p90/p99/p99.9); BenchmarkRunner adds the GC profiler for allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProductServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int catalogSize;
+
+    private BenchmarkCatalog catalog;
+    private ProductService productService;
+    private final AtomicLong created = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = BenchmarkCatalog.start(catalogSize);
+        productService = catalog.getBean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        catalog.close();
+    }
+
+    @Benchmark
+    public Product getProductById() {
+        return productService.getProductById(catalog.randomId());
+    }
+
+    @Benchmark
+    public Page<Product> getAllProductsPaginated() {
+        int pages = Math.max(1, catalogSize / 20);
+        return productService.getAllProducts(
+                PageRequest.of(ThreadLocalRandom.current().nextInt(pages), 20, Sort.by("name")));
+    }
+
+    @Benchmark
+    public List<Product> searchProducts() {
+        String[] words = BenchmarkCatalog.WORDS;
+        return productService.searchProducts(words[ThreadLocalRandom.current().nextInt(words.length)]);
+    }
+
+    @Benchmark
+    public List<Product> findProductsByPriceRange() {
+        long minCents = 100 + ThreadLocalRandom.current().nextInt(99_000);
+        BigDecimal min = BigDecimal.valueOf(minCents, 2);
+        return productService.findProductsByPriceRange(min, min.add(BigDecimal.TEN), false, 50);
+    }
+
+    // Grows the catalog by one row per call; unique names keep it on the success path
+    @Benchmark
+    public Product createProduct() {
+        Random random = ThreadLocalRandom.current();
+        Product product = BenchmarkCatalog.product(catalogSize + created.getAndIncrement(), random);
+        product.setName("Bench " + product.getName());
+        return productService.createProduct(product);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.example.productservice.benchmarks;
+
+import com.example.productservice.model.Product;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode/decode cost of a product list in each wire format the service can
+ * produce, with and without gzip as Tomcat applies it. Bytes on the wire per
+ * payload are logged once per trial, outside any measured iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductWireFormatBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductWireFormatBenchmark.class);
+
+    @Param({"json", "json+gzip", "smile", "smile+gzip", "cbor", "cbor+gzip"})
+    public String format;
+
+    @Param({"20", "1000"})
+    public int items;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private boolean gzip;
+    private List<Product> products;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] parts = format.split("\\+");
+        gzip = parts.length > 1;
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory(parts[0])).build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Product.class));
+        reader = objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Product.class));
+
+        Random random = new Random(42);
+        products = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Product next = BenchmarkCatalog.product(i, random);
+            next.setId((long) i + 1);
+            next.setCreatedAt(LocalDateTime.now());
+            next.setUpdatedAt(LocalDateTime.now());
+            next.setVersion(0L);
+            products.add(next);
+        }
+        encoded = encode();
+        logger.info("{}, {} products: {} bytes on the wire", format, items, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            writer.writeValue(out, products);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<Product> decode() throws IOException {
+        try (InputStream in = gzip
+                ? new GZIPInputStream(new ByteArrayInputStream(encoded))
+                : new ByteArrayInputStream(encoded)) {
+            return reader.readValue(in);
+        }
+    }
+
+    private static JsonFactory factory(String name) {
+        switch (name) {
+            case "json": return new JsonFactory();
+            case "smile": return new SmileFactory();
+            case "cbor": return new CBORFactory();
+            default: throw new IllegalArgumentException("Unknown format: " + name);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.productservice.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.web.annotation.RestControllerEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * /actuator/cacheinvalidation: receives invalidations from the other replicas
+ * on the {@link HttpInvalidationBus}. As an actuator endpoint it is served on
+ * the management port only, which the public Service does not route, and the
+ * peers' shared secret is checked on top of that. Serves both the servlet and
+ * the reactive stack; delivery can reload from the database, so it runs off
+ * the event loop.
+ */
+@Component
+@ConditionalOnProperty(name = "product.cache.bus.type", havingValue = "http")
+@RestControllerEndpoint(id = HttpInvalidationBus.ENDPOINT_ID)
+public class CacheInvalidationEndpoint {
+    
+    private final HttpInvalidationBus invalidationBus;
+    
+    @Autowired
+    public CacheInvalidationEndpoint(HttpInvalidationBus invalidationBus) {
+        this.invalidationBus = invalidationBus;
+    }
+    
+    @PostMapping
+    public Mono<ResponseEntity<Void>> receive(
+            @RequestHeader(value = HttpInvalidationBus.SECRET_HEADER, required = false) String secret,
+            @RequestBody ProductInvalidation invalidation) {
+        if (!invalidationBus.isAuthorized(secret)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        return Mono.fromRunnable(() -> invalidationBus.receive(invalidation))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.just(ResponseEntity.accepted().build()));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.productservice.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans invalidations out over HTTP to every address behind a DNS name, typically
+ * a headless Kubernetes service selecting all product-service pods. Sends are
+ * asynchronous and best effort: a lost message is bounded by the cache TTL.
+ * Peers post to each other's management port and authenticate with a shared
+ * secret sent in {@link #SECRET_HEADER}.
+ */
+public class HttpInvalidationBus extends LoopbackInvalidationBus implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HttpInvalidationBus.class);
+    
+    public static final String ENDPOINT_ID = "cacheinvalidation";
+    
+    // Served by CacheInvalidationEndpoint on the management port, under the default actuator base path
+    public static final String RECEIVE_PATH = "/actuator/" + ENDPOINT_ID;
+    
+    public static final String SECRET_HEADER = "X-Invalidation-Secret";
+    
+    private final RestTemplate restTemplate;
+    private final String peerHost;
+    private final int peerPort;
+    private final byte[] sharedSecret;
+    private final ThreadPoolExecutor sender;
+    
+    public HttpInvalidationBus(RestTemplate restTemplate, String peerHost, int peerPort, String sharedSecret,
+                               int queueCapacity) {
+        if (sharedSecret == null || sharedSecret.trim().isEmpty()) {
+            throw new IllegalArgumentException("product.cache.bus.http.shared-secret is required for the http bus");
+        }
+        this.restTemplate = restTemplate;
+        this.peerHost = peerHost;
+        this.peerPort = peerPort;
+        this.sharedSecret = sharedSecret.getBytes(StandardCharsets.UTF_8);
+        this.sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "invalidation-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> logger.warn("Invalidation queue full, dropping message"));
+    }
+    
+    @Override
+    public void publish(ProductInvalidation invalidation) {
+        sender.execute(() -> send(invalidation));
+    }
+    
+    public void receive(ProductInvalidation invalidation) {
+        deliver(invalidation);
+    }
+    
+    // Constant-time, so the secret cannot be guessed a byte at a time from response latency
+    public boolean isAuthorized(String secret) {
+        return secret != null && MessageDigest.isEqual(sharedSecret, secret.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private void send(ProductInvalidation invalidation) {
+        InetAddress[] peers;
+        try {
+            peers = InetAddress.getAllByName(peerHost);
+        } catch (UnknownHostException e) {
+            logger.warn("Cannot resolve invalidation peers {}: {}", peerHost, e.getMessage());
+            return;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(SECRET_HEADER, new String(sharedSecret, StandardCharsets.UTF_8));
+        HttpEntity<ProductInvalidation> request = new HttpEntity<>(invalidation, headers);
+        for (InetAddress peer : peers) {
+            String address = peer instanceof Inet6Address ? "[" + peer.getHostAddress() + "]" : peer.getHostAddress();
+            String url = "http://" + address + ":" + peerPort + RECEIVE_PATH;
+            try {
+                restTemplate.postForLocation(url, request);
+            } catch (RestClientException e) {
+                logger.warn("Failed to send {} to {}: {}", invalidation, url, e.getMessage());
+            }
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        sender.shutdown();
+    }
+}
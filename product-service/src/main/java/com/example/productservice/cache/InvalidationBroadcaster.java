@@ -0,0 +1,52 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.event.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bridges local product changes onto the {@link InvalidationBus} and replays
+ * changes made on other replicas as remote {@link ProductChangedEvent}s.
+ */
+@Component
+public class InvalidationBroadcaster {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBroadcaster.class);
+    
+    private final InvalidationBus bus;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String instanceId;
+    
+    @Autowired
+    public InvalidationBroadcaster(InvalidationBus bus, ApplicationEventPublisher eventPublisher,
+                                   @Value("${product.instance-id}") String instanceId) {
+        this.bus = bus;
+        this.eventPublisher = eventPublisher;
+        this.instanceId = instanceId;
+        bus.subscribe(this::onInvalidation);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!event.isRemote()) {
+            bus.publish(new ProductInvalidation(instanceId, event.getType(), event.getProductId(), event.getVersion()));
+        }
+    }
+    
+    private void onInvalidation(ProductInvalidation invalidation) {
+        if (instanceId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        logger.debug("Received remote invalidation: {}", invalidation);
+        eventPublisher.publishEvent(ProductChangedEvent.remote(
+                invalidation.getType(), invalidation.getProductId(), invalidation.getVersion()));
+    }
+    
+    public String getInstanceId() { return instanceId; }
+}
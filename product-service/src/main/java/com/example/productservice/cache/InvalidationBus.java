@@ -0,0 +1,15 @@
+package com.example.productservice.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts product invalidations between replicas. Implementations deliver
+ * every published message to all subscribers, including the publishing node;
+ * receivers filter out their own messages by origin.
+ */
+public interface InvalidationBus {
+    
+    void publish(ProductInvalidation invalidation);
+    
+    void subscribe(Consumer<ProductInvalidation> listener);
+}
@@ -0,0 +1,36 @@
+package com.example.productservice.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// In-JVM bus: the single-replica default, and a way to wire several nodes together in tests
+public class LoopbackInvalidationBus implements InvalidationBus {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoopbackInvalidationBus.class);
+    
+    private final List<Consumer<ProductInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    
+    @Override
+    public void publish(ProductInvalidation invalidation) {
+        deliver(invalidation);
+    }
+    
+    @Override
+    public void subscribe(Consumer<ProductInvalidation> listener) {
+        listeners.add(listener);
+    }
+    
+    protected void deliver(ProductInvalidation invalidation) {
+        for (Consumer<ProductInvalidation> listener : listeners) {
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                logger.warn("Invalidation listener failed for {}", invalidation, e);
+            }
+        }
+    }
+}
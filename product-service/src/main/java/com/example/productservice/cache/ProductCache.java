@@ -0,0 +1,107 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import static com.example.productservice.event.ProductChangedEvent.versionOf;
+
+/**
+ * Version-aware product cache. Every invalidation leaves a tombstone holding the
+ * version it invalidated through; a load that raced with the write and returned
+ * an older row is then refused instead of being cached until the TTL expires.
+ */
+@Component
+public class ProductCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProductCache.class);
+    
+    public static final String CACHE_NAME = "products";
+    
+    private final Cache<Long, Product> cache;
+    
+    private final Cache<Long, Long> tombstones;
+    
+    @Autowired
+    public ProductCache(@Value("${product.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${product.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                        MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.tombstones = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+    
+    public Product get(Long id, Function<Long, Product> loader) {
+        Product cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        Product loaded = loader.apply(id);
+        put(loaded);
+        return loaded;
+    }
+    
+    public Product getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+    
+    // Caches the product unless an equal-or-newer version is cached or a newer invalidation was seen
+    public void put(Product product) {
+        long version = versionOf(product);
+        cache.asMap().compute(product.getId(), (id, existing) -> {
+            Long invalidatedThrough = tombstones.getIfPresent(id);
+            if (invalidatedThrough != null && version < invalidatedThrough) {
+                return existing;
+            }
+            if (existing != null && versionOf(existing) >= version) {
+                return existing;
+            }
+            return product;
+        });
+    }
+    
+    // Drops cached versions older than the given one and refuses to cache them later
+    public void invalidate(Long id, long version) {
+        cache.asMap().compute(id, (key, existing) -> {
+            tombstones.asMap().merge(key, version, Math::max);
+            return existing != null && versionOf(existing) >= version ? existing : null;
+        });
+    }
+    
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+    
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+    
+    // After commit, so a concurrent reader cannot re-cache the pre-update row
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() != ProductChangedEvent.Type.CREATED) {
+            logger.debug("Invalidating cached product: {} through version {}", event.getProductId(), event.getVersion());
+            invalidate(event.getProductId(), event.getVersion());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.event.ProductChangedEvent;
+
+public class ProductInvalidation {
+    
+    private String origin;
+    private ProductChangedEvent.Type type;
+    private Long productId;
+    private long version;
+    
+    public ProductInvalidation() {}
+    
+    public ProductInvalidation(String origin, ProductChangedEvent.Type type, Long productId, long version) {
+        this.origin = origin;
+        this.type = type;
+        this.productId = productId;
+        this.version = version;
+    }
+    
+    // Getters and Setters
+    public String getOrigin() { return origin; }
+    public void setOrigin(String origin) { this.origin = origin; }
+    
+    public ProductChangedEvent.Type getType() { return type; }
+    public void setType(ProductChangedEvent.Type type) { this.type = type; }
+    
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
+    @Override
+    public String toString() {
+        return "ProductInvalidation{" +
+                "origin='" + origin + '\'' +
+                ", type=" + type +
+                ", productId=" + productId +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static com.example.productservice.event.ProductChangedEvent.versionOf;
+
+/**
+ * Each product's JSON as written by the application's ObjectMapper, kept as
+ * UTF-8 bytes. An entry is only reused while the product's updatedAt and
+ * version match the ones it was encoded from, so a changed product is simply
+ * encoded again and no invalidation is needed for correctness.
+ */
+@Component
+public class ProductJsonCache {
+    
+    public static final String CACHE_NAME = "productJson";
+    
+    private final ObjectWriter productWriter;
+    
+    private final Cache<Long, Fragment> fragments;
+    
+    @Autowired
+    public ProductJsonCache(ObjectMapper objectMapper,
+                            @Value("${product.json-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${product.json-cache.expire-after-access:10m}") Duration expireAfterAccess,
+                            MeterRegistry meterRegistry) {
+        this.productWriter = objectMapper.writerFor(Product.class);
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, fragments, CACHE_NAME);
+    }
+    
+    public byte[] get(Product product) throws JsonProcessingException {
+        // Without an id and updatedAt there is nothing to key or validate an entry by
+        if (product.getId() == null || product.getUpdatedAt() == null) {
+            return productWriter.writeValueAsBytes(product);
+        }
+        long updatedAt = versionOf(product.getUpdatedAt());
+        Fragment cached = fragments.getIfPresent(product.getId());
+        if (cached != null && cached.matches(updatedAt, product.getVersion())) {
+            return cached.json;
+        }
+        byte[] json = productWriter.writeValueAsBytes(product);
+        fragments.put(product.getId(), new Fragment(updatedAt, product.getVersion(), json));
+        return json;
+    }
+    
+    // Changed products are re-encoded on their next read; deleted ones just stop taking space
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            fragments.invalidate(event.getProductId());
+        }
+    }
+    
+    private static final class Fragment {
+        
+        private final long updatedAt;
+        private final Long version;
+        private final byte[] json;
+        
+        private Fragment(long updatedAt, Long version, byte[] json) {
+            this.updatedAt = updatedAt;
+            this.version = version;
+            this.json = json;
+        }
+        
+        private boolean matches(long updatedAt, Long version) {
+            return this.updatedAt == updatedAt && Objects.equals(this.version, version);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.example.productservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller runs
+ * the loader, callers arriving while it runs wait for and share its result or
+ * exception. Nothing is kept once the call completes, so this dedupes
+ * thundering herds without caching. Counted as
+ * {@code products.singleflight.calls} with outcome executed or coalesced.
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+    
+    public SingleFlight(String operation, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("products.singleflight.calls")
+                .tag("operation", operation).tag("outcome", "executed").register(meterRegistry);
+        this.coalesced = Counter.builder("products.singleflight.calls")
+                .tag("operation", operation).tag("outcome", "coalesced").register(meterRegistry);
+    }
+    
+    public V execute(K key, Function<K, V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        executed.increment();
+        try {
+            V value = loader.apply(key);
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+    
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+    
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            // Rethrow what the loader threw, so callers see e.g. ProductNotFoundException unchanged
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
\ No newline at end of file
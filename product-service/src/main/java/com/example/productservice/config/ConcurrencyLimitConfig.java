@@ -0,0 +1,55 @@
+package com.example.productservice.config;
+
+import com.example.productservice.limit.AdaptiveLimiter;
+import com.example.productservice.limit.ConcurrencyLimitFilter;
+import com.example.productservice.limit.EndpointClass;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limits in front of the product API, one per
+ * {@link EndpointClass}. Every class starts at {@code initial-limit} and then
+ * moves between {@code min-limit} and {@code max-limit} with its measured
+ * latency, except bulk writes: they stream without latency samples, so they
+ * get the fixed {@code bulk-limit}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "product.concurrency.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+    
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${product.concurrency.initial-limit:50}") int initialLimit,
+            @Value("${product.concurrency.min-limit:5}") int minLimit,
+            @Value("${product.concurrency.max-limit:200}") int maxLimit,
+            @Value("${product.concurrency.tolerance:1.5}") double tolerance,
+            @Value("${product.concurrency.bulk-limit:4}") int bulkLimit,
+            @Value("${product.concurrency.reserved-share:0.25}") double reservedShare,
+            @Value("${product.concurrency.retry-after:1s}") Duration retryAfter) {
+        Map<EndpointClass, AdaptiveLimiter> limiters = new EnumMap<>(EndpointClass.class);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            limiters.put(endpointClass, endpointClass == EndpointClass.BULK
+                    ? new AdaptiveLimiter(bulkLimit, bulkLimit, bulkLimit, tolerance)
+                    : new AdaptiveLimiter(initialLimit, minLimit, maxLimit, tolerance));
+        }
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limiters, retryAfter, reservedShare, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/v1/*");
+        // Ahead of the other API filters so shed requests cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.example.productservice.config;
+
+import com.example.productservice.cache.HttpInvalidationBus;
+import com.example.productservice.cache.InvalidationBus;
+import com.example.productservice.cache.LoopbackInvalidationBus;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class InvalidationBusConfig {
+    
+    @Bean
+    @ConditionalOnProperty(name = "product.cache.bus.type", havingValue = "http")
+    public HttpInvalidationBus httpInvalidationBus(
+            ObjectProvider<RestTemplateBuilder> restTemplateBuilder,
+            @Value("${product.cache.bus.http.peers}") String peers,
+            @Value("${product.cache.bus.http.port:${management.server.port:${server.port}}}") int port,
+            @Value("${product.cache.bus.http.shared-secret:}") String sharedSecret,
+            @Value("${product.cache.bus.http.timeout:500ms}") Duration timeout,
+            @Value("${product.cache.bus.http.queue-capacity:10000}") int queueCapacity) {
+        return new HttpInvalidationBus(
+                // Boot only provides a RestTemplateBuilder for servlet applications
+                restTemplateBuilder.getIfAvailable(RestTemplateBuilder::new).setConnectTimeout(timeout).setReadTimeout(timeout).build(),
+                peers, port, sharedSecret, queueCapacity);
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean(InvalidationBus.class)
+    public InvalidationBus loopbackInvalidationBus() {
+        return new LoopbackInvalidationBus();
+    }
+}
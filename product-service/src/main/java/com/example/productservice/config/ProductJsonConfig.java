@@ -0,0 +1,39 @@
+package com.example.productservice.config;
+
+import com.example.productservice.cache.ProductJsonCache;
+import com.example.productservice.controller.ProductJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Serves JSON product responses from pre-encoded fragments. The converter goes
+ * first so it wins JSON content negotiation for product bodies; every other
+ * body, and Smile and CBOR requests, still reach their own converters.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "product.json-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductJsonConfig implements WebMvcConfigurer {
+    
+    private final ProductJsonCache productJsonCache;
+    
+    private final ObjectMapper objectMapper;
+    
+    @Autowired
+    public ProductJsonConfig(ProductJsonCache productJsonCache, ObjectMapper objectMapper) {
+        this.productJsonCache = productJsonCache;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new ProductJsonHttpMessageConverter(productJsonCache, objectMapper));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.example.productservice.config;
+
+import com.example.productservice.perf.EntityLoadCountingInterceptor;
+import com.example.productservice.perf.ProfilingSessionEventListener;
+import com.example.productservice.perf.RequestProfile;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ProfilingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer profilingHibernateProperties() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, ProfilingSessionEventListener.class.getName());
+            properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCountingInterceptor());
+        };
+    }
+
+    // Attributes repository time to the current request, next to Boot's spring.data.repository.invocations timers
+    @Bean
+    public static BeanPostProcessor repositoryProfilingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addInvocationListener(invocation -> {
+                                RequestProfile profile = RequestProfile.current();
+                                if (profile != null) {
+                                    profile.addRepositoryCall(
+                                            invocation.getRepositoryInterface().getSimpleName() + "."
+                                                    + invocation.getMethod().getName(),
+                                            invocation.getDuration(TimeUnit.NANOSECONDS));
+                                }
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+}
\ No newline at end of file
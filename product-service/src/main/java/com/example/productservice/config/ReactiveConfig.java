@@ -0,0 +1,48 @@
+package com.example.productservice.config;
+
+import com.example.productservice.controller.ReactiveProductHandler;
+import com.example.productservice.controller.ReactiveProductRouter;
+import com.example.productservice.repository.ReactiveProductRepository;
+import com.example.productservice.service.ProductService;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import javax.validation.Validator;
+
+/**
+ * Beans for the reactive profile (spring.main.web-application-type=reactive):
+ * Netty instead of Tomcat, R2DBC reads and the functional product routes.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+    
+    // Tomcat is on the classpath too and would otherwise be picked as the reactive server
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+    
+    @Bean
+    public ReactiveProductRepository reactiveProductRepository(ConnectionFactory connectionFactory) {
+        return new ReactiveProductRepository(DatabaseClient.create(connectionFactory));
+    }
+    
+    @Bean
+    public ReactiveProductHandler reactiveProductHandler(ReactiveProductRepository reactiveProductRepository,
+                                                         ProductService productService, Validator validator) {
+        return new ReactiveProductHandler(reactiveProductRepository, productService, validator);
+    }
+    
+    // Peer invalidations arrive on the management port through CacheInvalidationEndpoint
+    @Bean
+    public RouterFunction<ServerResponse> productRoutes(ReactiveProductHandler reactiveProductHandler) {
+        return ReactiveProductRouter.routes(reactiveProductHandler);
+    }
+}
\ No newline at end of file
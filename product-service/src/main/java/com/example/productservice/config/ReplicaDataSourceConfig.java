@@ -0,0 +1,103 @@
+package com.example.productservice.config;
+
+import com.example.productservice.datasource.ReadWriteRoutingDataSource;
+import com.example.productservice.datasource.ReadYourWritesFilter;
+import com.example.productservice.datasource.ReplicaPool;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Read replicas, enabled by listing their JDBC URLs in
+ * {@code product.datasource.replicas.urls}. The application's DataSource then
+ * routes {@code @Transactional(readOnly = true)} work to the replicas and
+ * everything else, including schema and data initialization, to the primary
+ * configured under {@code spring.datasource}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.datasource.replicas.urls")
+public class ReplicaDataSourceConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSourceConfig.class);
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean(destroyMethod = "close")
+    public ReplicaPool replicaPool(
+            DataSourceProperties properties, MeterRegistry meterRegistry,
+            @Value("${product.datasource.replicas.urls}") String[] urls,
+            @Value("${product.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${product.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${product.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${product.datasource.replicas.connection-timeout:500ms}") Duration connectionTimeout,
+            @Value("${product.datasource.replicas.selection:round-robin}") String selection,
+            @Value("${product.datasource.replicas.health-check-interval:5s}") Duration healthCheckInterval) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(urls[i].trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        ReplicaPool pool = new ReplicaPool(replicas,
+                ReplicaPool.Selection.valueOf(selection.trim().toUpperCase(Locale.ROOT).replace('-', '_')),
+                healthCheckInterval);
+        Gauge.builder("product.datasource.replicas.healthy", pool, ReplicaPool::getHealthyCount)
+                .description("Read replicas currently receiving read-only transactions")
+                .register(meterRegistry);
+        logger.info("Routing read-only transactions to {} read replicas ({})", pool.size(), selection);
+        return pool;
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaPool));
+    }
+    
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${product.datasource.replicas.read-your-writes-window:2s}") Duration window,
+            @Value("${product.datasource.replicas.read-your-writes-clients:100000}") long maximumClients) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(window, maximumClients));
+        registration.addUrlPatterns("/api/v1/*");
+        return registration;
+    }
+}
\ No newline at end of file
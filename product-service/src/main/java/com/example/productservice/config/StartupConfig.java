@@ -0,0 +1,58 @@
+package com.example.productservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Startup tuning used by the fast-startup profile and the CDS image build.
+ * With {@code spring.main.lazy-initialization=true} only infrastructure outside
+ * this application (springdoc, the H2 console, unused actuator endpoints) and
+ * {@link OpenApiConfig} are deferred; the service's own beans stay eager so the
+ * first request does not pay for them. {@code product.startup.exit-after-ready}
+ * stops the JVM once the application is ready, for class-data-sharing training runs.
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+    private static final String APPLICATION_PACKAGE = "com.example.productservice.";
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerApplicationBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType.getName().startsWith(APPLICATION_PACKAGE)
+                && !OpenApiConfig.class.isAssignableFrom(beanType);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "product.startup.exit-after-ready", havingValue = "true")
+    public ExitAfterReady exitAfterReady() {
+        return new ExitAfterReady();
+    }
+
+    // Ordered last so the other ready listeners, such as the index rebuild, are part of the training run
+    static class ExitAfterReady implements ApplicationListener<ApplicationReadyEvent>, Ordered {
+
+        @Override
+        public void onApplicationEvent(ApplicationReadyEvent event) {
+            logger.info("Ready {} ms after JVM start, exiting (product.startup.exit-after-ready)",
+                    ManagementFactory.getRuntimeMXBean().getUptime());
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
\ No newline at end of file
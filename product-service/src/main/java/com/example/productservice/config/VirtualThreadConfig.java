@@ -0,0 +1,75 @@
+package com.example.productservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat request handling and Spring's application task executor (MVC
+ * async, StreamingResponseBody) on virtual threads when
+ * {@code product.threads.virtual=true} and the JVM is 21 or newer. Blocking
+ * JDBC calls then park a virtual thread instead of holding one of Tomcat's
+ * platform threads; concurrency against the database is bounded by the Hikari
+ * pool instead. The source still compiles for Java 8, so the executor is
+ * looked up reflectively.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.threads.virtual", havingValue = "true")
+@Conditional(VirtualThreadConfig.VirtualThreadsAvailable.class)
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        logger.info("Handling requests on virtual threads");
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    // Replaces Boot's pooled applicationTaskExecutor, which MVC async requests use by name
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21 or newer", e);
+        }
+    }
+
+    static class VirtualThreadsAvailable implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            try {
+                Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return true;
+            } catch (NoSuchMethodException e) {
+                logger.warn("product.threads.virtual=true ignored: Java {} has no virtual threads",
+                        System.getProperty("java.specification.version"));
+                return false;
+            }
+        }
+    }
+}
\ No newline at end of file
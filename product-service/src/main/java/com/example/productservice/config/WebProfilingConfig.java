@@ -0,0 +1,28 @@
+package com.example.productservice.config;
+
+import com.example.productservice.perf.AccessLog;
+import com.example.productservice.perf.RequestProfiler;
+import com.example.productservice.perf.RequestProfilingInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebProfilingConfig implements WebMvcConfigurer {
+    
+    private final RequestProfiler requestProfiler;
+    
+    private final AccessLog accessLog;
+    
+    @Autowired
+    public WebProfilingConfig(RequestProfiler requestProfiler, AccessLog accessLog) {
+        this.requestProfiler = requestProfiler;
+        this.accessLog = accessLog;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestProfilingInterceptor(requestProfiler, accessLog)).addPathPatterns("/api/**");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.productservice.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import javax.servlet.Filter;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Binary encodings of the same JSON data model for service-to-service callers:
+ * {@code Accept: application/x-jackson-smile} or {@code application/cbor}.
+ * Built from Boot's Jackson builder so spring.jackson.* settings and modules
+ * apply exactly as for JSON; Boot registers these in place of its defaults.
+ * Every API response carries {@code Vary: Accept} so shared caches keep the
+ * encodings apart.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WireFormatConfig {
+    
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+    
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+    
+    // Set before the chain, so 304s, errors and streamed bodies carry it as well
+    @Bean
+    public FilterRegistrationBean<Filter> varyAcceptFilter() {
+        Filter varyAccept = (request, response, chain) -> {
+            ((HttpServletResponse) response).addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            chain.doFilter(request, response);
+        };
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(varyAccept);
+        registration.addUrlPatterns("/api/v1/*");
+        return registration;
+    }
+}
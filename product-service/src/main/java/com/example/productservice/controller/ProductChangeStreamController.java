@@ -0,0 +1,45 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.event.ProductChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.servlet.http.HttpServletResponse;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/products")
+@Tag(name = "Product Management", description = "APIs for managing products")
+public class ProductChangeStreamController {
+    
+    public static final String STREAM_PATH = "/api/v1/products/stream";
+    
+    private final ProductChangeFeed changeFeed;
+    
+    @Autowired
+    public ProductChangeStreamController(ProductChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream product changes",
+            description = "Server-Sent Events for every committed create, update and delete. Reconnect with "
+                    + "Last-Event-ID (or lastEventId) to resume; a reset event means the catalog must be reloaded")
+    public SseEmitter streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+            HttpServletResponse response) {
+        // Keep reverse proxies from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+}
\ No newline at end of file
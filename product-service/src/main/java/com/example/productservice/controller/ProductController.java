@@ -1,7 +1,22 @@
 package com.example.productservice.controller;
 
+import com.example.productservice.exception.InvalidRequestParameterException;
+import com.example.productservice.model.BatchItemResult;
+import com.example.productservice.model.CursorPage;
+import com.example.productservice.model.ImportReport;
 import com.example.productservice.model.Product;
+import com.example.productservice.model.ProductRevision;
+import com.example.productservice.service.ProductBatchService;
+import com.example.productservice.service.ProductFields;
+import com.example.productservice.service.ProductImportService;
 import com.example.productservice.service.ProductService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,30 +25,70 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/products")
 @Tag(name = "Product Management", description = "APIs for managing products")
 public class ProductController {
     
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
     
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    
     private final ProductService productService;
     
+    private final ProductBatchService productBatchService;
+    
+    private final ProductImportService productImportService;
+    
+    private final ObjectWriter productWriter;
+    
+    private final ObjectWriter batchResultWriter;
+    
+    private final ObjectReader productReader;
+    
+    private final ObjectReader idReader;
+    
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductBatchService productBatchService,
+                             ProductImportService productImportService, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productBatchService = productBatchService;
+        this.productImportService = productImportService;
+        this.productWriter = objectMapper.writerFor(Product.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.batchResultWriter = objectMapper.writerFor(BatchItemResult.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.productReader = objectMapper.readerFor(Product.class);
+        this.idReader = objectMapper.readerFor(Long.class);
     }
     
     @GetMapping
@@ -51,36 +106,103 @@ public class ProductController {
             @Parameter(description = "Sort direction")
             @RequestParam(defaultValue = "asc") String sortDir,
             @Parameter(description = "Enable pagination")
-            @RequestParam(defaultValue = "false") boolean paginated) {
+            @RequestParam(defaultValue = "false") boolean paginated,
+            @Parameter(description = "Enable cursor (keyset) pagination; page and total counts are not computed")
+            @RequestParam(defaultValue = "false") boolean cursor,
+            @Parameter(description = "Opaque cursor returned as nextCursor by the previous cursor page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name,price; id is always included")
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
-        logger.info("GET /api/v1/products - page: {}, size: {}, sortBy: {}, sortDir: {}, paginated: {}", 
-                   page, size, sortBy, sortDir, paginated);
+        boolean cursorMode = cursor || after != null;
+        logger.debug("GET /api/v1/products - page: {}, size: {}, sortBy: {}, sortDir: {}, paginated: {}, cursor: {}", 
+                   page, size, sortBy, sortDir, paginated, cursorMode);
         
-        if (paginated) {
+        if (cursorMode && (size < 1 || size > MAX_CURSOR_PAGE_SIZE)) {
+            throw new InvalidRequestParameterException(
+                    "Cursor page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        Set<String> selected = fields != null ? ProductFields.parse(fields) : null;
+        String etag = catalogETag(webRequest);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        if (cursorMode) {
+            boolean descending = sortDir.equalsIgnoreCase("desc");
+            CursorPage<?> products = selected != null
+                    ? productService.getProductFieldsAfter(after, size, sortBy, descending, selected)
+                    : productService.getProductsAfter(after, size, sortBy, descending);
+            return revalidated(etag).body(products);
+        } else if (paginated) {
             Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                        Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
             Pageable pageable = PageRequest.of(page, size, sort);
-            Page<Product> products = productService.getAllProducts(pageable);
-            return ResponseEntity.ok(products);
+            Page<?> products = selected != null
+                    ? productService.getAllProductFields(selected, pageable)
+                    : productService.getAllProducts(pageable);
+            return revalidated(etag).body(products);
         } else {
-            List<Product> products = productService.getAllProducts();
-            return ResponseEntity.ok(products);
+            List<?> products = selected != null
+                    ? productService.getAllProductFields(selected)
+                    : productService.getAllProducts();
+            return revalidated(etag).body(products);
         }
     }
     
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all products", description = "Stream every product as newline-delimited JSON")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Products streamed successfully")
+    })
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        logger.debug("GET /api/v1/products - streaming export");
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = createNdjsonGenerator(productWriter, outputStream);
+            long exported = productService.streamAllProducts(product -> writeNdjsonLine(productWriter, generator, product));
+            generator.flush();
+            logger.debug("Exported {} products", exported);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+    
+    @GetMapping(params = "stream=true")
+    @Operation(summary = "Export all products (query form)", description = "Same as the NDJSON export, for clients that cannot set Accept")
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        return exportProducts();
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Product found"),
+        @ApiResponse(responseCode = "304", description = "Product unchanged since the given ETag or date"),
         @ApiResponse(responseCode = "404", description = "Product not found")
     })
     public ResponseEntity<Product> getProductById(
             @Parameter(description = "Product ID", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
         
-        logger.info("GET /api/v1/products/{}", id);
+        logger.debug("GET /api/v1/products/{}", id);
+        // Revalidation is answered from the version and updatedAt columns; the product is only loaded if it changed
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Optional<ProductRevision> revision = productService.findProductRevision(id);
+            if (revision.isPresent() && webRequest.checkNotModified(
+                    ProductETags.of(revision.get()), ProductETags.lastModified(revision.get().getUpdatedAt()))) {
+                return null;
+            }
+        }
         Product product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+        ResponseEntity.BodyBuilder response = revalidated(ProductETags.of(product));
+        if (product.getUpdatedAt() != null) {
+            response.lastModified(ProductETags.lastModified(product.getUpdatedAt()));
+        }
+        return response.body(product);
     }
     
     @PostMapping
@@ -94,7 +216,7 @@ public class ProductController {
             @Parameter(description = "Product details", required = true)
             @Valid @RequestBody Product product) {
         
-        logger.info("POST /api/v1/products - Creating product: {}", product.getName());
+        logger.debug("POST /api/v1/products - Creating product: {}", product.getName());
         Product createdProduct = productService.createProduct(product);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
     }
@@ -105,17 +227,23 @@ public class ProductController {
         @ApiResponse(responseCode = "200", description = "Product updated successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid input"),
         @ApiResponse(responseCode = "404", description = "Product not found"),
-        @ApiResponse(responseCode = "409", description = "Product name already exists")
+        @ApiResponse(responseCode = "409", description = "Product name already exists"),
+        @ApiResponse(responseCode = "412", description = "Product changed since the If-Match ETag was read")
     })
     public ResponseEntity<Product> updateProduct(
             @Parameter(description = "Product ID", required = true)
             @PathVariable Long id,
             @Parameter(description = "Updated product details", required = true)
-            @Valid @RequestBody Product product) {
+            @Valid @RequestBody Product product,
+            @Parameter(description = "ETag the update is based on; the update is refused if the product changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
-        logger.info("PUT /api/v1/products/{} - Updating product", id);
-        Product updatedProduct = productService.updateProduct(id, product);
-        return ResponseEntity.ok(updatedProduct);
+        logger.debug("PUT /api/v1/products/{} - Updating product", id);
+        Product updatedProduct = ifMatch != null
+                ? productService.updateProduct(id, product,
+                        current -> ProductETags.matches(ifMatch, ProductETags.of(current)))
+                : productService.updateProduct(id, product);
+        return ResponseEntity.ok().eTag(ProductETags.of(updatedProduct)).body(updatedProduct);
     }
     
     @DeleteMapping("/{id}")
@@ -128,32 +256,190 @@ public class ProductController {
             @Parameter(description = "Product ID", required = true)
             @PathVariable Long id) {
         
-        logger.info("DELETE /api/v1/products/{}", id);
+        logger.debug("DELETE /api/v1/products/{}", id);
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
     
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE},
+                 produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Create products in bulk",
+               description = "Accepts a JSON array or NDJSON of products; streams one NDJSON result per item")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Per-item results streamed")
+    })
+    public ResponseEntity<StreamingResponseBody> createProducts(HttpServletRequest request) {
+        logger.debug("POST /api/v1/products/batch");
+        return this.<Product>batchResponse(request, productReader,
+                (products, sink) -> productBatchService.createProducts(products, sink));
+    }
+    
+    @PutMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE},
+                produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Update products in bulk",
+               description = "Accepts a JSON array or NDJSON of products with ids; streams one NDJSON result per item")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Per-item results streamed")
+    })
+    public ResponseEntity<StreamingResponseBody> updateProducts(HttpServletRequest request) {
+        logger.debug("PUT /api/v1/products/batch");
+        return this.<Product>batchResponse(request, productReader,
+                (products, sink) -> productBatchService.updateProducts(products, sink));
+    }
+    
+    @DeleteMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE},
+                   produces = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Delete products in bulk",
+               description = "Accepts a JSON array or NDJSON of product ids; streams one NDJSON result per item")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Per-item results streamed")
+    })
+    public ResponseEntity<StreamingResponseBody> deleteProducts(HttpServletRequest request) {
+        logger.debug("DELETE /api/v1/products/batch");
+        return this.<Long>batchResponse(request, idReader,
+                (ids, sink) -> productBatchService.deleteProducts(ids, sink));
+    }
+    
+    @PostMapping(value = "/import", consumes = {"text/csv", APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Import a product dump",
+               description = "Parses a CSV (with header) or NDJSON body row by row and creates products in committed chunks")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished; see the report for per-row failures"),
+        @ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    public ResponseEntity<ImportReport> importProducts(
+            @Parameter(description = "csv or ndjson; defaults to the request content type")
+            @RequestParam(required = false) String format,
+            HttpServletRequest request) throws IOException {
+        
+        logger.debug("POST /api/v1/products/import - contentType: {}", request.getContentType());
+        ProductImportService.Format importFormat =
+                ProductImportService.Format.detect(format != null ? format : request.getContentType());
+        try (InputStream inputStream = request.getInputStream()) {
+            ImportReport report = productImportService.importProducts(inputStream, importFormat, "request");
+            return ResponseEntity.ok(report);
+        }
+    }
+    
     @GetMapping("/search")
     @Operation(summary = "Search products", description = "Search products by keyword in name or description")
-    public ResponseEntity<List<Product>> searchProducts(
+    public ResponseEntity<List<?>> searchProducts(
             @Parameter(description = "Search keyword", required = true)
-            @RequestParam String keyword) {
+            @RequestParam String keyword,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name,price; id is always included")
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
-        logger.info("GET /api/v1/products/search?keyword={}", keyword);
-        List<Product> products = productService.searchProducts(keyword);
-        return ResponseEntity.ok(products);
+        logger.debug("GET /api/v1/products/search?keyword={}", keyword);
+        Set<String> selected = fields != null ? ProductFields.parse(fields) : null;
+        String etag = catalogETag(webRequest);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<?> products = selected != null
+                ? productService.searchProductFields(keyword, selected)
+                : productService.searchProducts(keyword);
+        return revalidated(etag).body(products);
     }
     
     @GetMapping("/price-range")
-    @Operation(summary = "Find products by price range", description = "Find products within a specific price range")
-    public ResponseEntity<List<Product>> findByPriceRange(
+    @Operation(summary = "Find products by price range", description = "Find products within a specific price range, ordered by price")
+    public ResponseEntity<List<?>> findByPriceRange(
             @Parameter(description = "Minimum price", required = true)
             @RequestParam BigDecimal minPrice,
             @Parameter(description = "Maximum price", required = true)
-            @RequestParam BigDecimal maxPrice) {
+            @RequestParam BigDecimal maxPrice,
+            @Parameter(description = "Maximum number of products to return")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Price sort direction (asc or desc)")
+            @RequestParam(defaultValue = "asc") String sort,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name,price; id is always included")
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
         
-        logger.info("GET /api/v1/products/price-range?minPrice={}&maxPrice={}", minPrice, maxPrice);
-        List<Product> products = productService.findProductsByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(products);
+        logger.debug("GET /api/v1/products/price-range?minPrice={}&maxPrice={}&limit={}&sort={}",
+                   minPrice, maxPrice, limit, sort);
+        if (limit != null && limit < 1) {
+            throw new InvalidRequestParameterException("limit must be at least 1");
+        }
+        Set<String> selected = fields != null ? ProductFields.parse(fields) : null;
+        String etag = catalogETag(webRequest);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        boolean descending = sort.equalsIgnoreCase("desc");
+        List<?> products = selected != null
+                ? productService.findProductFieldsByPriceRange(minPrice, maxPrice, descending, limit, selected)
+                : productService.findProductsByPriceRange(minPrice, maxPrice, descending, limit);
+        return revalidated(etag).body(products);
+    }
+    
+    // Read before the data, so a write racing with the read can only make the tag stale, never too new.
+    // Only a revalidation needs the current revision; other reads reuse the last one seen.
+    private String catalogETag(WebRequest webRequest) {
+        return ProductETags.of(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                ? productService.getCatalogRevision()
+                : productService.getLastKnownCatalogRevision());
+    }
+    
+    // no-cache: browsers and proxies may keep the body but must revalidate it before every reuse
+    private static ResponseEntity.BodyBuilder revalidated(String etag) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag);
+    }
+    
+    private interface BatchOperation<T> {
+        void apply(MappingIterator<T> items, Consumer<BatchItemResult> sink);
+    }
+    
+    // Reads the body lazily while results are written, so neither side is buffered in full
+    private <T> ResponseEntity<StreamingResponseBody> batchResponse(HttpServletRequest request, ObjectReader reader,
+                                                                    BatchOperation<T> operation) {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = createNdjsonGenerator(batchResultWriter, outputStream);
+            int[] reported = {0};
+            try (InputStream inputStream = request.getInputStream();
+                 MappingIterator<T> items = reader.readValues(inputStream)) {
+                operation.apply(items, result -> {
+                    writeNdjsonLine(batchResultWriter, generator, result);
+                    reported[0]++;
+                });
+            } catch (JsonProcessingException e) {
+                writeMalformedRecord(generator, reported[0], e);
+            } catch (RuntimeException e) {
+                // MappingIterator wraps parse and mapping errors in unchecked exceptions
+                if (e instanceof UncheckedIOException || !(e.getCause() instanceof JsonProcessingException)) {
+                    throw e;
+                }
+                writeMalformedRecord(generator, reported[0], (JsonProcessingException) e.getCause());
+            }
+            generator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+    
+    // The 200 is already committed, so a terminal record is what tells a truncated body from a complete one
+    private void writeMalformedRecord(JsonGenerator generator, int index, JsonProcessingException e) {
+        logger.debug("Aborting batch at item {}: {}", index, e.getOriginalMessage());
+        writeNdjsonLine(batchResultWriter, generator, BatchItemResult.failure(index, null,
+                BatchItemResult.Status.MALFORMED, "Malformed item, remaining input ignored: " + e.getOriginalMessage()));
+    }
+    
+    private JsonGenerator createNdjsonGenerator(ObjectWriter writer, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = writer.createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+    
+    private void writeNdjsonLine(ObjectWriter writer, JsonGenerator generator, Object value) {
+        try {
+            writer.writeValue(generator, value);
+            // The generator spills to the response whenever its buffer fills up
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.model.CatalogRevision;
+import com.example.productservice.model.Product;
+import com.example.productservice.model.ProductRevision;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Entity tags for product representations. A single product gets a strong tag
+ * from id and @Version, usable with If-Match; collections get a weak tag from
+ * the catalog revision, so revalidating a list never has to load it. Weak,
+ * because Tomcat only gzips responses without a strong tag. Both come from
+ * database-issued values, so clock skew between replicas cannot hide a change.
+ */
+final class ProductETags {
+    
+    private ProductETags() {
+    }
+    
+    static String of(Product product) {
+        return of(product.getId(), product.getVersion());
+    }
+    
+    static String of(ProductRevision revision) {
+        return of(revision.getId(), revision.getVersion());
+    }
+    
+    static String of(Long id, Long version) {
+        return "\"p" + id + "-" + Long.toHexString(version != null ? version : 0L) + "\"";
+    }
+    
+    static long lastModified(LocalDateTime updatedAt) {
+        // -1 means unknown to WebRequest.checkNotModified
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+    
+    static String of(CatalogRevision revision) {
+        return "W/\"c" + revision.getCount() + "-" + Long.toHexString(revision.getMaxId())
+                + "-" + Long.toHexString(revision.getVersionSum()) + "\"";
+    }
+    
+    // If-Match uses strong comparison: weak tags never match, "*" matches any current representation
+    static boolean matches(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.cache.ProductJsonCache;
+import com.example.productservice.model.Product;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Writes products and collections of products as JSON from {@link ProductJsonCache}
+ * fragments: a product is its cached bytes, a collection is the bytes of each
+ * product joined into a JSON array directly on the response stream. Only bodies
+ * declared as {@code Product} or {@code Collection<? extends Product>} are
+ * claimed, plus collections whose element type is left open ({@code List<?>}),
+ * since the product endpoints return either products or sparse field maps.
+ * Anything that turns out not to be all products, JSON views and non-UTF-8
+ * charsets go through the inherited Jackson write path unchanged. Write-only:
+ * requests are still read by the regular Jackson converter.
+ */
+public class ProductJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    
+    private final ProductJsonCache productJsonCache;
+    
+    public ProductJsonHttpMessageConverter(ProductJsonCache productJsonCache, ObjectMapper objectMapper) {
+        super(objectMapper);
+        this.productJsonCache = productJsonCache;
+    }
+    
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return Product.class.isAssignableFrom(clazz) && canWrite(mediaType);
+    }
+    
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (type == null) {
+            return canWrite(clazz, mediaType);
+        }
+        ResolvableType declared = ResolvableType.forType(type);
+        Class<?> bodyClass = declared.resolve(clazz);
+        if (bodyClass == null) {
+            return false;
+        }
+        if (Product.class.isAssignableFrom(bodyClass)) {
+            return canWrite(mediaType);
+        }
+        if (!Collection.class.isAssignableFrom(bodyClass)) {
+            return false;
+        }
+        // An open element type (List<?>, or the runtime class behind ResponseEntity<?>) is checked when written
+        Class<?> elementClass = declared.resolve() != null ? declared.asCollection().resolveGeneric(0) : null;
+        return (elementClass == null || Product.class.isAssignableFrom(elementClass)) && canWrite(mediaType);
+    }
+    
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        // The fragments are UTF-8; any other charset, whether or not Jackson knows it, is left to Jackson
+        Charset charset = contentType != null ? contentType.getCharset() : null;
+        if (value instanceof MappingJacksonValue || (charset != null && !StandardCharsets.UTF_8.equals(charset))
+                || !(value instanceof Product || onlyProducts(value))) {
+            super.writeInternal(value, type, outputMessage);
+            return;
+        }
+        OutputStream body = outputMessage.getBody();
+        if (value instanceof Product) {
+            body.write(productJsonCache.get((Product) value));
+            return;
+        }
+        body.write('[');
+        boolean first = true;
+        for (Object item : (Collection<?>) value) {
+            if (!first) {
+                body.write(',');
+            }
+            body.write(productJsonCache.get((Product) item));
+            first = false;
+        }
+        body.write(']');
+    }
+    
+    // Jackson knows UTF-16 only with an explicit byte order; big-endian is what UTF-16 means without a BOM
+    @Override
+    protected JsonEncoding getJsonEncoding(MediaType contentType) {
+        if (contentType != null && StandardCharsets.UTF_16.equals(contentType.getCharset())) {
+            return JsonEncoding.UTF16_BE;
+        }
+        return super.getJsonEncoding(contentType);
+    }
+    
+    private static boolean onlyProducts(Object value) {
+        if (!(value instanceof Collection)) {
+            return false;
+        }
+        for (Object item : (Collection<?>) value) {
+            if (!(item instanceof Product)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.exception.GlobalExceptionHandler.ErrorResponse;
+import com.example.productservice.exception.GlobalExceptionHandler.ValidationErrorResponse;
+import com.example.productservice.exception.ProductAlreadyExistsException;
+import com.example.productservice.exception.ProductNotFoundException;
+import com.example.productservice.model.Product;
+import com.example.productservice.repository.ReactiveProductRepository;
+import com.example.productservice.service.ProductService;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Handlers behind {@link ReactiveProductRouter}. Reads stream straight from
+ * R2DBC; writes go through the blocking {@link ProductService} on the
+ * bounded-elastic scheduler so caches, indexes and change events stay exactly
+ * as on the servlet API, without blocking an event-loop thread.
+ */
+public class ReactiveProductHandler {
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(ProductController.APPLICATION_NDJSON_VALUE);
+
+    private final ReactiveProductRepository reactiveProductRepository;
+    private final ProductService productService;
+    private final Validator validator;
+
+    public ReactiveProductHandler(ReactiveProductRepository reactiveProductRepository,
+                                  ProductService productService, Validator validator) {
+        this.reactiveProductRepository = reactiveProductRepository;
+        this.productService = productService;
+        this.validator = validator;
+    }
+
+    public Mono<ServerResponse> getAllProducts(ServerRequest request) {
+        if (!Boolean.parseBoolean(request.queryParam("paginated").orElse("false"))) {
+            return stream(request, reactiveProductRepository.findAll());
+        }
+        int page;
+        int size;
+        try {
+            page = intParam(request, "page", 0);
+            size = intParam(request, "size", 10);
+        } catch (NumberFormatException e) {
+            return badRequest("page and size must be numbers");
+        }
+        if (page < 0 || size < 1) {
+            return badRequest("page must be >= 0 and size >= 1");
+        }
+        // Same Page shape as the servlet API, so clients can switch between the two
+        Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
+        return reactiveProductRepository.findPage(page, size).collectList()
+                .zipWith(reactiveProductRepository.count(),
+                        (content, total) -> new PageImpl<>(content, pageable, total))
+                .flatMap(products -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(products));
+    }
+
+    public Mono<ServerResponse> getProductById(ServerRequest request) {
+        return withId(request, id -> reactiveProductRepository.findById(id)
+                .flatMap(product -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(product))
+                .switchIfEmpty(Mono.defer(() -> error(HttpStatus.NOT_FOUND, "Product Not Found",
+                        new ProductNotFoundException(id).getMessage()))));
+    }
+
+    public Mono<ServerResponse> searchProducts(ServerRequest request) {
+        Optional<String> keyword = request.queryParam("keyword");
+        if (!keyword.isPresent()) {
+            return badRequest("keyword is required");
+        }
+        return stream(request, reactiveProductRepository.searchByKeyword(keyword.get()));
+    }
+
+    public Mono<ServerResponse> findByPriceRange(ServerRequest request) {
+        Optional<String> minPrice = request.queryParam("minPrice");
+        Optional<String> maxPrice = request.queryParam("maxPrice");
+        if (!minPrice.isPresent() || !maxPrice.isPresent()) {
+            return badRequest("minPrice and maxPrice are required");
+        }
+        try {
+            return stream(request, reactiveProductRepository.findByPriceBetween(
+                    new BigDecimal(minPrice.get()), new BigDecimal(maxPrice.get())));
+        } catch (NumberFormatException e) {
+            return badRequest("minPrice and maxPrice must be numbers");
+        }
+    }
+
+    public Mono<ServerResponse> createProduct(ServerRequest request) {
+        return request.bodyToMono(Product.class)
+                .flatMap(product -> validated(product, () -> productService.createProduct(product), HttpStatus.CREATED));
+    }
+
+    public Mono<ServerResponse> updateProduct(ServerRequest request) {
+        return withId(request, id -> request.bodyToMono(Product.class)
+                .flatMap(product -> validated(product, () -> productService.updateProduct(id, product), HttpStatus.OK)));
+    }
+
+    public Mono<ServerResponse> deleteProduct(ServerRequest request) {
+        return withId(request, id -> blocking(() -> {
+            productService.deleteProduct(id);
+            return id;
+        }).flatMap(deleted -> ServerResponse.noContent().build())
+                .onErrorResume(ProductNotFoundException.class,
+                        e -> error(HttpStatus.NOT_FOUND, "Product Not Found", e.getMessage())));
+    }
+
+    // A non-numeric id is a 400, as on the servlet API
+    private static Mono<ServerResponse> withId(ServerRequest request, Function<Long, Mono<ServerResponse>> handler) {
+        Long id;
+        try {
+            id = Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return badRequest("id must be a number");
+        }
+        return handler.apply(id);
+    }
+
+    // Jackson writes NDJSON element by element as demand arrives; plain JSON is an array
+    private Mono<ServerResponse> stream(ServerRequest request, Flux<Product> products) {
+        boolean ndjson = request.headers().accept().stream().anyMatch(APPLICATION_NDJSON::isCompatibleWith);
+        return ServerResponse.ok()
+                .contentType(ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(products, Product.class);
+    }
+
+    private Mono<ServerResponse> validated(Product product, Callable<Product> write, HttpStatus status) {
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new LinkedHashMap<>();
+            violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+            return ServerResponse.badRequest().bodyValue(new ValidationErrorResponse(
+                    HttpStatus.BAD_REQUEST.value(), "Validation Failed", errors, LocalDateTime.now()));
+        }
+        return blocking(write)
+                .flatMap(saved -> ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(saved))
+                .onErrorResume(ProductNotFoundException.class,
+                        e -> error(HttpStatus.NOT_FOUND, "Product Not Found", e.getMessage()))
+                .onErrorResume(ProductAlreadyExistsException.class,
+                        e -> error(HttpStatus.CONFLICT, "Product Already Exists", e.getMessage()));
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static Mono<ServerResponse> badRequest(String message) {
+        return error(HttpStatus.BAD_REQUEST, "Invalid Request Parameter", message);
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String error, String message) {
+        return ServerResponse.status(status)
+                .bodyValue(new ErrorResponse(status.value(), error, message, LocalDateTime.now()));
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.productservice.controller;
+
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.DELETE;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RequestPredicates.PUT;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * The /api/v1/products contract of {@link ProductController} as WebFlux
+ * functional routes, served when the reactive profile is active.
+ */
+public final class ReactiveProductRouter {
+    
+    private ReactiveProductRouter() {
+    }
+    
+    public static RouterFunction<ServerResponse> routes(ReactiveProductHandler handler) {
+        return route(GET("/api/v1/products/search"), handler::searchProducts)
+                .andRoute(GET("/api/v1/products/price-range"), handler::findByPriceRange)
+                .andRoute(GET("/api/v1/products/{id}"), handler::getProductById)
+                .andRoute(GET("/api/v1/products"), handler::getAllProducts)
+                .andRoute(POST("/api/v1/products"), handler::createProduct)
+                .andRoute(PUT("/api/v1/products/{id}"), handler::updateProduct)
+                .andRoute(DELETE("/api/v1/products/{id}"), handler::deleteProduct);
+    }
+}
\ No newline at end of file
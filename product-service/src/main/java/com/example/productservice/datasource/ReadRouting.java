@@ -0,0 +1,38 @@
+package com.example.productservice.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override of replica routing. Work that must observe its own or
+ * another node's latest commit, such as a client's read after its write, runs
+ * with the primary required and never reads from a replica.
+ */
+public final class ReadRouting {
+    
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+    
+    private ReadRouting() {
+    }
+    
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+    
+    public static void setPrimaryRequired(boolean required) {
+        if (required) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+    
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean previous = isPrimaryRequired();
+        setPrimaryRequired(true);
+        try {
+            return work.get();
+        } finally {
+            setPrimaryRequired(previous);
+        }
+    }
+}
\ No newline at end of file
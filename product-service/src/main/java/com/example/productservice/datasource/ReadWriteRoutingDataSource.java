@@ -0,0 +1,47 @@
+package com.example.productservice.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Sends read-only transactions to a {@link ReplicaPool} and everything else to
+ * the primary. The routing decision reads the transaction's read-only flag, so
+ * this must sit behind a LazyConnectionDataSourceProxy: the physical connection
+ * is then only fetched at the first statement, after the flag is set. Reads
+ * fall back to the primary while no replica is healthy or when
+ * {@link ReadRouting} requires it.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+    
+    private final DataSource primary;
+    private final ReplicaPool replicas;
+    
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaPool replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (routesToReplica()) {
+            Connection connection = replicas.getConnection();
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return primary.getConnection();
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+    
+    static boolean routesToReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !ReadRouting.isPrimaryRequired();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.example.productservice.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Replication-lag fence: for a window after a client's successful write, that
+ * client's requests read from the primary, so it always sees its own change.
+ * Clients are told apart by an {@code X-Client-Id} header, else by the first
+ * {@code X-Forwarded-For} address, else by the remote address. The window
+ * should exceed the replicas' worst expected lag.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    
+    private final Cache<String, Boolean> recentWriters;
+    
+    public ReadYourWritesFilter(Duration window, long maximumClients) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maximumClients)
+                .build();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = clientKey(request);
+        ReadRouting.setPrimaryRequired(recentWriters.getIfPresent(client) != null);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.setPrimaryRequired(false);
+            if (isWrite(request.getMethod()) && response.getStatus() < 400) {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        }
+    }
+    
+    static String clientKey(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        if (clientId != null && !clientId.isEmpty()) {
+            return clientId;
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isEmpty()) {
+            int comma = forwardedFor.indexOf(',');
+            return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+        }
+        return request.getRemoteAddr();
+    }
+    
+    private static boolean isWrite(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.example.productservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read replicas behind {@link ReadWriteRoutingDataSource}. Connections come
+ * from the healthy replicas in round-robin or least-loaded (fewest active plus
+ * waiting connections) order. A replica that cannot be reached is ejected at
+ * once; a background check validates every replica on an interval and readmits
+ * the ones that answer again. A replica whose pool is merely exhausted stays in
+ * rotation and is skipped, so the read goes to the next replica or the primary
+ * instead of waiting out the connection timeout.
+ */
+public class ReplicaPool implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaPool.class);
+    
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+    
+    public enum Selection { ROUND_ROBIN, LEAST_LOADED }
+    
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Selection selection;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+    
+    public ReplicaPool(List<HikariDataSource> dataSources, Selection selection, Duration healthCheckInterval) {
+        for (HikariDataSource dataSource : dataSources) {
+            replicas.add(new Replica(dataSource));
+        }
+        this.selection = selection;
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, healthCheckInterval.toMillis(),
+                healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    // A connection from the first healthy replica that hands one out, or null if none does
+    public Connection getConnection() {
+        for (Replica replica : candidates()) {
+            if (replica.saturated()) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                if (isPoolExhausted(e)) {
+                    // Busy, not broken: the pool filled up between the check above and the request
+                    logger.debug("Read replica {} has no free connection, trying the next one", replica.name());
+                } else {
+                    eject(replica, e.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+    
+    public int getHealthyCount() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+    
+    public int size() {
+        return replicas.size();
+    }
+    
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean valid;
+            String failure = null;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                valid = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                if (isPoolExhausted(e)) {
+                    // Every connection is in use, so the replica is answering
+                    continue;
+                }
+                valid = false;
+                failure = e.getMessage();
+            }
+            if (!valid) {
+                eject(replica, failure != null ? failure : "connection validation failed");
+            } else if (!replica.healthy) {
+                replica.healthy = true;
+                logger.info("Read replica {} is healthy again, readmitting it", replica.name());
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+    
+    private List<Replica> candidates() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                healthy.add(replica);
+            }
+        }
+        if (selection == Selection.LEAST_LOADED) {
+            // Stable sort: ties keep the round-robin rotation
+            healthy.sort(Comparator.comparingInt(Replica::load));
+        }
+        return healthy;
+    }
+    
+    // Hikari's timeout when every connection is busy; when the database is unreachable it carries the last connection failure as its cause
+    static boolean isPoolExhausted(SQLException e) {
+        return e instanceof SQLTransientConnectionException && e.getCause() == null;
+    }
+    
+    private void eject(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            logger.warn("Ejecting read replica {}: {}", replica.name(), reason);
+        }
+    }
+    
+    private static final class Replica {
+        
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+        
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+        
+        private String name() {
+            return dataSource.getPoolName();
+        }
+        
+        // Nothing idle and no room to grow: a request would only wait for the connection timeout
+        private boolean saturated() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null && pool.getIdleConnections() == 0
+                    && pool.getTotalConnections() >= dataSource.getMaximumPoolSize();
+        }
+        
+        // Hikari starts the pool, and its MXBean, on the first connection
+        private int load() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() + pool.getThreadsAwaitingConnection() : 0;
+        }
+    }
+}
\ No newline at end of file
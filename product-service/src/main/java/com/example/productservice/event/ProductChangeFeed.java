@@ -0,0 +1,413 @@
+package com.example.productservice.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Committed product changes as a Server-Sent Events stream. Every change gets
+ * the next sequence number and is kept in a fixed-size replay log, so a client
+ * that reconnects with {@code Last-Event-ID} receives what it missed; one that
+ * fell further behind, or was connected to an earlier run of the service, gets
+ * a {@code reset} event telling it to reload the catalog. Publishing only
+ * appends to each subscriber's queue; a small pool of dispatch threads writes
+ * to the connections, and a subscriber whose queue reaches its limit is
+ * disconnected rather than allowed to hold changes for everyone else. Writes
+ * block until the client takes the bytes, so a watchdog also disconnects a
+ * subscriber whose write has not returned within the write timeout, and lends
+ * the pool a thread until that write gives up, so stalled clients cannot pin
+ * every dispatch thread and starve the healthy ones.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ProductChangeFeed implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeFeed.class);
+    
+    private static final int DRAIN_BATCH = 64;
+    
+    private static final Change HEARTBEAT = new Change(0, null, null);
+    
+    // Event ids are <stream>:<sequence>; the stream changes with every start, as the log is in memory
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+    
+    private final ObjectMapper objectMapper;
+    private final Change[] replayLog;
+    private final int subscriberBuffer;
+    private final long timeoutMillis;
+    private final long writeTimeoutNanos;
+    private final Executor dispatcher;
+    private final ScheduledExecutorService scheduler;
+    private final int maxLentThreads;
+    private final AtomicInteger lentThreads = new AtomicInteger();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter published;
+    private final Counter evicted;
+    
+    private long lastSequence;
+    
+    @Autowired
+    public ProductChangeFeed(ObjectMapper objectMapper,
+                             @Value("${product.change-feed.replay-size:1024}") int replaySize,
+                             @Value("${product.change-feed.subscriber-buffer:256}") int subscriberBuffer,
+                             @Value("${product.change-feed.timeout:30m}") Duration timeout,
+                             @Value("${product.change-feed.write-timeout:5s}") Duration writeTimeout,
+                             @Value("${product.change-feed.heartbeat-interval:15s}") Duration heartbeatInterval,
+                             @Value("${product.change-feed.dispatch-threads:4}") int dispatchThreads,
+                             MeterRegistry meterRegistry) {
+        this(objectMapper, replaySize, subscriberBuffer, timeout, writeTimeout, newDispatcher(dispatchThreads),
+                newScheduler(), meterRegistry);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatInterval.toMillis(),
+                heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        long stallCheckMillis = Math.max(1, writeTimeout.toMillis() / 2);
+        scheduler.scheduleWithFixedDelay(this::checkStalledWrites, stallCheckMillis, stallCheckMillis,
+                TimeUnit.MILLISECONDS);
+    }
+    
+    ProductChangeFeed(ObjectMapper objectMapper, int replaySize, int subscriberBuffer, Duration timeout,
+                      Duration writeTimeout, Executor dispatcher, ScheduledExecutorService scheduler,
+                      MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.replayLog = new Change[replaySize];
+        this.subscriberBuffer = subscriberBuffer;
+        this.timeoutMillis = timeout.toMillis();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.dispatcher = dispatcher;
+        this.scheduler = scheduler;
+        // Up to one extra thread per dispatch thread stands in for threads held by stalled writes
+        this.maxLentThreads = dispatcher instanceof ThreadPoolExecutor
+                ? ((ThreadPoolExecutor) dispatcher).getCorePoolSize() : 0;
+        Gauge.builder("product.changefeed.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(meterRegistry);
+        this.published = Counter.builder("product.changefeed.events")
+                .description("Changes appended to the change feed")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("product.changefeed.evicted")
+                .description("Subscribers disconnected for falling behind or stalling a write")
+                .register(meterRegistry);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        String json;
+        try {
+            json = encode(event);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not encode {} for the change feed", event, e);
+            return;
+        }
+        String name = event.getType().name().toLowerCase();
+        synchronized (this) {
+            Change change = new Change(++lastSequence, name, json);
+            replayLog[(int) (change.sequence % replayLog.length)] = change;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(change);
+            }
+        }
+        published.increment();
+    }
+    
+    public SseEmitter subscribe(String lastEventId) {
+        return register(new SseEmitter(timeoutMillis), lastEventId);
+    }
+    
+    SseEmitter register(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber;
+        synchronized (this) {
+            List<Change> missed = missedSince(lastEventId);
+            subscriber = new Subscriber(emitter, subscriberBuffer + (missed != null ? missed.size() : 1));
+            if (missed == null) {
+                subscriber.enqueue(new Change(lastSequence, "reset", "{\"reason\":\"Changes since "
+                        + lastEventId + " are no longer available, reload the catalog\"}"));
+            } else {
+                missed.forEach(subscriber::enqueue);
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.schedule();
+        return emitter;
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    // Disconnects subscribers whose current write has not returned within the write timeout
+    void checkStalledWrites() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.writeStartedNanos;
+            if (started != 0 && now - started > writeTimeoutNanos) {
+                logger.debug("Disconnecting change feed subscriber stalled in a write for {} ms",
+                        (now - started) / 1_000_000);
+                subscriber.evict();
+                subscriber.lendThread();
+            }
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (dispatcher instanceof ExecutorService) {
+            ((ExecutorService) dispatcher).shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+    
+    // Null when the client cannot be caught up from the log
+    private List<Change> missedSince(String lastEventId) {
+        if (lastEventId == null || lastEventId.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int separator = lastEventId.indexOf(':');
+        if (separator < 0 || !streamId.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+        long seen;
+        try {
+            seen = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = Math.max(1, lastSequence - replayLog.length + 1);
+        if (seen > lastSequence || seen < oldest - 1) {
+            return null;
+        }
+        List<Change> missed = new ArrayList<>((int) (lastSequence - seen));
+        for (long sequence = seen + 1; sequence <= lastSequence; sequence++) {
+            missed.add(replayLog[(int) (sequence % replayLog.length)]);
+        }
+        return missed;
+    }
+    
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queued.get() == 0) {
+                subscriber.enqueue(HEARTBEAT);
+                subscriber.schedule();
+            }
+        }
+    }
+    
+    private String encode(ProductChangedEvent event) throws JsonProcessingException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("type", event.getType());
+        body.put("productId", event.getProductId());
+        body.put("version", event.getVersion());
+        // Changes relayed from other replicas carry only the id; clients fetch the product if they need it
+        if (event.getProduct() != null) {
+            body.put("product", event.getProduct());
+        }
+        return objectMapper.writeValueAsString(body);
+    }
+    
+    private static ThreadPoolExecutor newDispatcher(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    // Heartbeats and stall checks run apart from the dispatch threads, which a stalled write can occupy
+    private static ScheduledExecutorService newScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    // Grows or shrinks the dispatch pool by one thread; a no-op for other executors
+    private void resizeDispatcher(int delta) {
+        if (!(dispatcher instanceof ThreadPoolExecutor)) {
+            return;
+        }
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) dispatcher;
+        synchronized (pool) {
+            int size = pool.getCorePoolSize() + delta;
+            // The maximum may never drop below the core size, so the order depends on the direction
+            if (delta > 0) {
+                pool.setMaximumPoolSize(size);
+                pool.setCorePoolSize(size);
+            } else {
+                pool.setCorePoolSize(size);
+                pool.setMaximumPoolSize(size);
+            }
+        }
+    }
+    
+    private static final class Change {
+        
+        private final long sequence;
+        private final String name;
+        private final String json;
+        
+        private Change(long sequence, String name, String json) {
+            this.sequence = sequence;
+            this.name = name;
+            this.json = json;
+        }
+    }
+    
+    private final class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final int limit;
+        private final Queue<Change> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean evictionCounted = new AtomicBoolean();
+        private final AtomicBoolean borrowing = new AtomicBoolean();
+        private volatile boolean closed;
+        // System.nanoTime() when the write in progress started, 0 between writes
+        private volatile long writeStartedNanos;
+        
+        private Subscriber(SseEmitter emitter, int limit) {
+            this.emitter = emitter;
+            this.limit = limit;
+        }
+        
+        void offer(Change change) {
+            if (closed) {
+                return;
+            }
+            if (queued.get() >= limit) {
+                logger.debug("Disconnecting change feed subscriber {} changes behind", queued.get());
+                evict();
+            } else {
+                enqueue(change);
+            }
+            schedule();
+        }
+        
+        // The dispatch thread completes the emitter once its current write returns
+        void evict() {
+            closed = true;
+            subscribers.remove(this);
+            if (evictionCounted.compareAndSet(false, true)) {
+                evicted.increment();
+            }
+        }
+        
+        // Stands in for the dispatch thread held by a stalled write until that write returns
+        void lendThread() {
+            if (!borrowing.compareAndSet(false, true)) {
+                return;
+            }
+            if (lentThreads.incrementAndGet() > maxLentThreads) {
+                lentThreads.decrementAndGet();
+                borrowing.set(false);
+                return;
+            }
+            resizeDispatcher(1);
+            if (writeStartedNanos == 0) {
+                // The write returned before the thread was lent, so nothing else will give it back
+                returnThread();
+            }
+        }
+        
+        private void returnThread() {
+            if (borrowing.compareAndSet(true, false)) {
+                lentThreads.decrementAndGet();
+                resizeDispatcher(-1);
+            }
+        }
+        
+        void enqueue(Change change) {
+            queue.add(change);
+            queued.incrementAndGet();
+        }
+        
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                Change change;
+                for (int sent = 0; sent < DRAIN_BATCH && !closed && (change = queue.poll()) != null; sent++) {
+                    queued.decrementAndGet();
+                    send(change);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The connection is gone; the container completes the emitter
+                closed = true;
+                subscribers.remove(this);
+                return;
+            }
+            if (closed) {
+                queue.clear();
+                emitter.complete();
+                return;
+            }
+            scheduled.set(false);
+            // Re-checked after releasing the flag: an eviction in between found it set and did not reschedule
+            if (closed || !queue.isEmpty()) {
+                schedule();
+            }
+        }
+        
+        private void send(Change change) throws IOException {
+            writeStartedNanos = System.nanoTime();
+            try {
+                if (change == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(streamId + ":" + change.sequence)
+                            .name(change.name)
+                            .data(change.json, MediaType.APPLICATION_JSON));
+                }
+            } finally {
+                writeStartedNanos = 0;
+                returnThread();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.example.productservice.event;
+
+import com.example.productservice.model.Product;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+public class ProductChangedEvent {
+    
+    public enum Type { CREATED, UPDATED, DELETED }
+    
+    // Deleted ids are never reused, so a delete supersedes every version
+    public static final long DELETED_VERSION = Long.MAX_VALUE;
+    
+    private final Type type;
+    private final Long productId;
+    private final long version;
+    private final Product product;
+    private final boolean remote;
+    
+    public ProductChangedEvent(Type type, Long productId, long version, Product product, boolean remote) {
+        this.type = type;
+        this.productId = productId;
+        this.version = version;
+        this.product = product;
+        this.remote = remote;
+    }
+    
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), 0L, product, false);
+    }
+    
+    public static ProductChangedEvent updated(Product product) {
+        return new ProductChangedEvent(Type.UPDATED, product.getId(), 0L, product, false);
+    }
+    
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, DELETED_VERSION, null, false);
+    }
+    
+    // Received from another replica: carries no entity, consumers reload by id if they need it
+    public static ProductChangedEvent remote(Type type, Long productId, long version) {
+        return new ProductChangedEvent(type, productId, version, null, true);
+    }
+    
+    // The JPA @Version issued by the database, so ordering does not depend on any replica's clock
+    public static long versionOf(Product product) {
+        return product.getVersion() != null ? product.getVersion() : 0L;
+    }
+    
+    // Microseconds since the epoch; truncated so the in-memory and reloaded values agree
+    public static long versionOf(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return 0L;
+        }
+        return TimeUnit.SECONDS.toMicros(updatedAt.toEpochSecond(ZoneOffset.UTC))
+                + TimeUnit.NANOSECONDS.toMicros(updatedAt.getNano());
+    }
+    
+    // Getters
+    public Type getType() { return type; }
+    public Long getProductId() { return productId; }
+    // Read from the entity on demand: the @Version is only incremented when the change is flushed
+    public long getVersion() { return product != null ? versionOf(product) : version; }
+    public Product getProduct() { return product; }
+    public boolean isRemote() { return remote; }
+    
+    @Override
+    public String toString() {
+        return "ProductChangedEvent{" +
+                "type=" + type +
+                ", productId=" + productId +
+                ", version=" + getVersion() +
+                ", remote=" + remote +
+                '}';
+    }
+}
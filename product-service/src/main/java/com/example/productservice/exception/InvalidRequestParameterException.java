@@ -0,0 +1,11 @@
+package com.example.productservice.exception;
+
+public class InvalidRequestParameterException extends RuntimeException {
+    public InvalidRequestParameterException(String message) {
+        super(message);
+    }
+    
+    public InvalidRequestParameterException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.productservice.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(Long id) {
+        super("Product with id " + id + " has been modified since it was read");
+    }
+}
\ No newline at end of file
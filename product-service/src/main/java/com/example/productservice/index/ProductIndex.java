@@ -0,0 +1,22 @@
+package com.example.productservice.index;
+
+import com.example.productservice.model.Product;
+
+/**
+ * In-memory secondary index over the catalog, kept current by
+ * {@link ProductIndexMaintainer}. Queries must fall back to the database
+ * while {@link #isReady()} is false.
+ */
+public interface ProductIndex {
+    
+    // Adds the product or replaces its previous entry
+    void index(Product product);
+    
+    void remove(Long productId);
+    
+    void clear();
+    
+    boolean isReady();
+    
+    void markReady();
+}
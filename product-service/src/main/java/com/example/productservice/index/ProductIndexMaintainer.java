@@ -0,0 +1,141 @@
+package com.example.productservice.index;
+
+import com.example.productservice.datasource.ReadRouting;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.model.Product;
+import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.service.ProductService;
+import com.example.productservice.snapshot.ProductSnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Builds every {@link ProductIndex} from the database at startup and applies
+ * committed changes to them afterwards. Changes that arrive while a rebuild is
+ * streaming the table are queued and replayed once it finishes, so a row read
+ * early in the scan cannot overwrite a newer update. When a
+ * {@link ProductSnapshotStore} is configured the rebuild replays its snapshot
+ * instead of reading the whole table.
+ */
+@Component
+public class ProductIndexMaintainer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProductIndexMaintainer.class);
+    
+    private final List<ProductIndex> indexes;
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final ObjectProvider<ProductSnapshotStore> snapshotStore;
+    
+    // Guards rebuilding and pendingDuringRebuild together, so no event is queued after the last drain
+    private final Object pendingLock = new Object();
+    private final Queue<ProductChangedEvent> pendingDuringRebuild = new ArrayDeque<>();
+    private boolean rebuilding;
+    
+    @Autowired
+    public ProductIndexMaintainer(List<ProductIndex> indexes, ProductService productService,
+                                  ProductRepository productRepository,
+                                  ObjectProvider<ProductSnapshotStore> snapshotStore) {
+        this.indexes = indexes;
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.snapshotStore = snapshotStore;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        synchronized (pendingLock) {
+            rebuilding = true;
+        }
+        try {
+            indexes.forEach(ProductIndex::clear);
+            // From the primary: a lagging read replica would leave the indexes behind for good
+            long count = ReadRouting.onPrimary(this::loadAll);
+            while (true) {
+                ProductChangedEvent event;
+                synchronized (pendingLock) {
+                    event = pendingDuringRebuild.poll();
+                    if (event == null) {
+                        // Flipped only once the queue is empty; later events are applied directly
+                        rebuilding = false;
+                        break;
+                    }
+                }
+                // Reload rather than trust the queued snapshot, which may predate a later change
+                reload(event.getProductId());
+            }
+            indexes.forEach(ProductIndex::markReady);
+            logger.info("Indexed {} products into {} indexes in {} ms",
+                    count, indexes.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            synchronized (pendingLock) {
+                rebuilding = false;
+                pendingDuringRebuild.clear();
+            }
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (pendingLock) {
+            if (rebuilding) {
+                pendingDuringRebuild.add(event);
+                return;
+            }
+        }
+        apply(event);
+    }
+    
+    private void apply(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            removeEverywhere(event.getProductId());
+        } else if (event.getProduct() != null && !event.isRemote()) {
+            indexEverywhere(event.getProduct());
+        } else {
+            // Remote changes carry only the id
+            reload(event.getProductId());
+        }
+    }
+    
+    private long loadAll() {
+        ProductSnapshotStore store = snapshotStore.getIfAvailable();
+        long count = store != null ? store.replay(this::indexEverywhere, this::removeEverywhere) : -1;
+        if (count < 0) {
+            count = productService.streamAllProducts(this::indexEverywhere);
+        }
+        return count;
+    }
+    
+    private void reload(Long productId) {
+        Product product = ReadRouting.onPrimary(() -> productRepository.findById(productId)).orElse(null);
+        if (product != null) {
+            indexEverywhere(product);
+        } else {
+            removeEverywhere(productId);
+        }
+    }
+    
+    private void indexEverywhere(Product product) {
+        for (ProductIndex index : indexes) {
+            index.index(product);
+        }
+    }
+    
+    private void removeEverywhere(Long productId) {
+        for (ProductIndex index : indexes) {
+            index.remove(productId);
+        }
+    }
+}
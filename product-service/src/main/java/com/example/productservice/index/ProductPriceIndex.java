@@ -0,0 +1,123 @@
+package com.example.productservice.index;
+
+import com.example.productservice.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Products ordered by (price in cents, id). Range queries walk only the
+ * matching slice, in either direction, and stop at the requested limit.
+ */
+@Component
+public class ProductPriceIndex implements ProductIndex {
+    
+    private static final Comparator<long[]> BY_PRICE_THEN_ID = (a, b) -> {
+        int byPrice = Long.compare(a[0], b[0]);
+        return byPrice != 0 ? byPrice : Long.compare(a[1], b[1]);
+    };
+    
+    // Entries are {cents, id}
+    private final NavigableSet<long[]> entries = new TreeSet<>(BY_PRICE_THEN_ID);
+    
+    private final Map<Long, Long> centsById = new HashMap<>();
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private volatile boolean ready;
+    
+    @Override
+    public void index(Product product) {
+        if (product.getPrice() == null) {
+            remove(product.getId());
+            return;
+        }
+        long cents = toCents(product.getPrice(), RoundingMode.HALF_UP);
+        lock.writeLock().lock();
+        try {
+            removeLocked(product.getId());
+            entries.add(new long[] {cents, product.getId()});
+            centsById.put(product.getId(), cents);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            entries.clear();
+            centsById.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+    
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+    
+    // Ids priced within [minPrice, maxPrice], ordered by price then id; limit <= 0 means unbounded
+    public List<Long> findIdsInRange(BigDecimal minPrice, BigDecimal maxPrice, boolean descending, int limit) {
+        long minCents = toCents(minPrice, RoundingMode.CEILING);
+        long maxCents = toCents(maxPrice, RoundingMode.FLOOR);
+        List<Long> ids = new ArrayList<>();
+        if (minCents > maxCents) {
+            return ids;
+        }
+        
+        lock.readLock().lock();
+        try {
+            NavigableSet<long[]> range = entries.subSet(
+                    new long[] {minCents, Long.MIN_VALUE}, true,
+                    new long[] {maxCents, Long.MAX_VALUE}, true);
+            Iterator<long[]> iterator = descending ? range.descendingIterator() : range.iterator();
+            while (iterator.hasNext() && (limit <= 0 || ids.size() < limit)) {
+                ids.add(iterator.next()[1]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+    
+    static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        return price.movePointRight(2).setScale(0, roundingMode).longValueExact();
+    }
+    
+    private void removeLocked(Long productId) {
+        Long cents = centsById.remove(productId);
+        if (cents != null) {
+            entries.remove(new long[] {cents, productId});
+        }
+    }
+}
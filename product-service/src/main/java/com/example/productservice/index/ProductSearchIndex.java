@@ -0,0 +1,237 @@
+package com.example.productservice.index;
+
+import com.example.productservice.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over product name and description, matching exactly what the
+ * database search matches: products whose name or description contains the
+ * keyword, ignoring case. Every suffix of every token is indexed, so each query
+ * token finds the tokens it is a substring of; products holding all of them
+ * are then checked for the whole keyword. Results are ranked by the summed
+ * weight of matching tokens, name hits counting more than description hits
+ * and whole-token hits more than partial ones.
+ */
+@Component
+public class ProductSearchIndex implements ProductIndex {
+    
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_MATCH_MULTIPLIER = 2;
+    
+    // token -> (product id -> weight of that token within the product)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    
+    // suffix -> indexed tokens ending with it; a prefix range over suffixes finds substrings
+    private final NavigableMap<String, Set<String>> tokensBySuffix = new TreeMap<>();
+    
+    private final Map<Long, IndexedText> textByProduct = new HashMap<>();
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private volatile boolean ready;
+    
+    @Override
+    public void index(Product product) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : tokenize(product.getName())) {
+            weights.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(product.getDescription())) {
+            weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        
+        lock.writeLock().lock();
+        try {
+            removeLocked(product.getId());
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), this::addSuffixes)
+                        .put(product.getId(), entry.getValue());
+            }
+            textByProduct.put(product.getId(), new IndexedText(product, weights.keySet()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            postings.clear();
+            tokensBySuffix.clear();
+            textByProduct.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+    
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+    
+    // Ids of matching products, most relevant first
+    public List<Long> search(String query) {
+        String keyword = query.toLowerCase(Locale.ROOT);
+        Set<String> queryTokens = tokenize(keyword);
+        
+        Map<Long, Integer> scores = null;
+        lock.readLock().lock();
+        try {
+            if (queryTokens.isEmpty()) {
+                // Nothing to look up (blank or punctuation only), but the database would still match it
+                scores = new HashMap<>();
+                for (Map.Entry<Long, IndexedText> entry : textByProduct.entrySet()) {
+                    scores.put(entry.getKey(), 0);
+                }
+            }
+            for (String queryToken : queryTokens) {
+                Map<Long, Integer> tokenScores = new HashMap<>();
+                for (String token : tokensContaining(queryToken)) {
+                    int multiplier = token.equals(queryToken) ? EXACT_MATCH_MULTIPLIER : 1;
+                    for (Map.Entry<Long, Integer> hit : postings.get(token).entrySet()) {
+                        if (scores == null || scores.containsKey(hit.getKey())) {
+                            tokenScores.merge(hit.getKey(), hit.getValue() * multiplier, Integer::sum);
+                        }
+                    }
+                }
+                if (scores != null) {
+                    for (Map.Entry<Long, Integer> entry : tokenScores.entrySet()) {
+                        entry.setValue(entry.getValue() + scores.get(entry.getKey()));
+                    }
+                }
+                scores = tokenScores;
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            // Every token matched somewhere; the keyword as a whole must still appear in one field
+            scores.keySet().removeIf(id -> !textByProduct.get(id).contains(keyword));
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Integer.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+        });
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Integer> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+    
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    private Set<String> tokensContaining(String queryToken) {
+        Set<String> tokens = new HashSet<>();
+        for (Set<String> withSuffix : tokensBySuffix.subMap(
+                queryToken, true, queryToken + Character.MAX_VALUE, false).values()) {
+            tokens.addAll(withSuffix);
+        }
+        return tokens;
+    }
+    
+    private Map<Long, Integer> addSuffixes(String token) {
+        for (int start = 0; start < token.length(); start++) {
+            tokensBySuffix.computeIfAbsent(token.substring(start), suffix -> new HashSet<>()).add(token);
+        }
+        return new HashMap<>();
+    }
+    
+    private void removeSuffixes(String token) {
+        for (int start = 0; start < token.length(); start++) {
+            String suffix = token.substring(start);
+            Set<String> tokens = tokensBySuffix.get(suffix);
+            if (tokens != null) {
+                tokens.remove(token);
+                if (tokens.isEmpty()) {
+                    tokensBySuffix.remove(suffix);
+                }
+            }
+        }
+    }
+    
+    private void removeLocked(Long productId) {
+        IndexedText text = textByProduct.remove(productId);
+        if (text == null) {
+            return;
+        }
+        for (String token : text.tokens) {
+            Map<Long, Integer> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(productId);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                    removeSuffixes(token);
+                }
+            }
+        }
+    }
+    
+    // Lowercased fields kept for the whole-keyword check, as LOWER(..) LIKE '%keyword%' would see them
+    private static final class IndexedText {
+        
+        private final String name;
+        private final String description;
+        private final Set<String> tokens;
+        
+        private IndexedText(Product product, Set<String> tokens) {
+            this.name = product.getName() != null ? product.getName().toLowerCase(Locale.ROOT) : null;
+            this.description = product.getDescription() != null
+                    ? product.getDescription().toLowerCase(Locale.ROOT) : null;
+            this.tokens = tokens;
+        }
+        
+        boolean contains(String keyword) {
+            return (name != null && name.contains(keyword)) || (description != null && description.contains(keyword));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.productservice.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows measured latency, in the style of a gradient
+ * limiter. A long-term average of request latency stands in for the latency
+ * without queueing; while the short-term average stays within
+ * {@code tolerance} of it the limit grows by about its square root, and as
+ * latency rises above it the limit shrinks in proportion (at most halving per
+ * sample). A failed request cuts the limit multiplicatively. The limit only
+ * grows while at least half of it is in use, so an idle period does not
+ * inflate it.
+ */
+public class AdaptiveLimiter {
+    
+    private static final double SHORT_ALPHA = 0.2;
+    private static final double LONG_ALPHA = 2.0 / 601;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+    
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max, got " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+    
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    // Releases a permit and feeds its latency, or a failure, into the limit
+    public void release(long rttNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(rttNanos, inFlightBefore, failed);
+    }
+    
+    // For requests whose latency says nothing about capacity, such as long streaming responses
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+    
+    public boolean isSaturated() {
+        return inFlight.get() >= (int) limit;
+    }
+    
+    // Getters
+    public int getLimit() { return (int) limit; }
+    public int getInFlight() { return inFlight.get(); }
+    
+    private synchronized void update(long rttNanos, int inFlightBefore, boolean failed) {
+        if (failed) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            return;
+        }
+        if (rttNanos <= 0) {
+            return;
+        }
+        shortRtt = shortRtt == 0 ? rttNanos : shortRtt + SHORT_ALPHA * (rttNanos - shortRtt);
+        longRtt = longRtt == 0 ? rttNanos : longRtt + LONG_ALPHA * (rttNanos - longRtt);
+        // After a slow spell the long average lags far behind; pull it down so recovery is not throttled
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        if (inFlightBefore < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.example.productservice.limit;
+
+import com.example.productservice.controller.ProductChangeStreamController;
+import com.example.productservice.exception.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sheds product API load before it queues up behind a slow database. Each
+ * {@link EndpointClass} has its own {@link AdaptiveLimiter}; a request over its
+ * class's limit, or a lower-priority request while a higher-priority class is
+ * at its limit, is answered at once with 503 and Retry-After instead of
+ * waiting for a thread or connection. A class keeps a reserved share of its
+ * own limit that is admitted even while a higher-priority class is saturated,
+ * so busy writes slow reads down rather than shutting them out. Limits,
+ * requests in flight and rejections are published as product.concurrency.* meters.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private final Map<EndpointClass, AdaptiveLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+    private final ObjectMapper objectMapper;
+    private final String retryAfterSeconds;
+    private final double reservedShare;
+    
+    public ConcurrencyLimitFilter(Map<EndpointClass, AdaptiveLimiter> limiters, Duration retryAfter,
+                                  double reservedShare, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        if (reservedShare < 0.0 || reservedShare > 1.0) {
+            throw new IllegalArgumentException("Reserved share must be between 0 and 1, got: " + reservedShare);
+        }
+        this.objectMapper = objectMapper;
+        this.reservedShare = reservedShare;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.getSeconds()));
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdaptiveLimiter limiter = limiters.get(endpointClass);
+            this.limiters.put(endpointClass, limiter);
+            Gauge.builder("product.concurrency.limit", limiter, AdaptiveLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("class", endpointClass.tagValue())
+                    .register(meterRegistry);
+            Gauge.builder("product.concurrency.inflight", limiter, AdaptiveLimiter::getInFlight)
+                    .description("Requests currently admitted")
+                    .tag("class", endpointClass.tagValue())
+                    .register(meterRegistry);
+            rejections.put(endpointClass, Counter.builder("product.concurrency.rejected")
+                    .description("Requests shed with 503")
+                    .tag("class", endpointClass.tagValue())
+                    .register(meterRegistry));
+        }
+    }
+    
+    // Change stream subscribers stay connected indefinitely and would hold a permit each
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length())
+                .equals(ProductChangeStreamController.STREAM_PATH);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        AdaptiveLimiter limiter = limiters.get(endpointClass);
+        if (shedForHigherPriority(endpointClass, limiter) || !limiter.tryAcquire()) {
+            rejections.get(endpointClass).increment();
+            reject(response);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streaming responses hold their permit until they finish, but their duration is not a latency sample
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limiter));
+            } else {
+                limiter.release(System.nanoTime() - start, failed);
+            }
+        }
+    }
+    
+    private boolean shedForHigherPriority(EndpointClass endpointClass, AdaptiveLimiter limiter) {
+        int reserved = (int) (limiter.getLimit() * reservedShare);
+        return limiter.getInFlight() >= reserved && higherPrioritySaturated(endpointClass);
+    }
+    
+    private boolean higherPrioritySaturated(EndpointClass endpointClass) {
+        for (EndpointClass higher : EndpointClass.values()) {
+            if (higher == endpointClass) {
+                return false;
+            }
+            if (limiters.get(higher).isSaturated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable",
+                "Too many concurrent requests, retry after " + retryAfterSeconds + "s", LocalDateTime.now()));
+    }
+    
+    private static final class ReleaseOnCompletion implements AsyncListener {
+        
+        private final AdaptiveLimiter limiter;
+        private boolean released;
+        
+        private ReleaseOnCompletion(AdaptiveLimiter limiter) {
+            this.limiter = limiter;
+        }
+        
+        @Override
+        public synchronized void onComplete(AsyncEvent event) {
+            if (!released) {
+                released = true;
+                limiter.releaseWithoutSample();
+            }
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for a further async cycle on the same request
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
\ No newline at end of file
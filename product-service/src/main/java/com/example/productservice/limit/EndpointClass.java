@@ -0,0 +1,43 @@
+package com.example.productservice.limit;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Product API requests grouped by cost, in priority order: writes, then cheap
+ * reads (by id, paginated and cursor pages), then search-like reads (keyword
+ * and price-range search, unpaginated lists, exports and streams), then bulk
+ * writes (batch and import), which stream for as long as the upload lasts.
+ */
+public enum EndpointClass {
+    
+    WRITES, READS, SEARCH, BULK;
+    
+    private static final String PRODUCTS_PATH = "/api/v1/products";
+    
+    public String tagValue() {
+        return name().toLowerCase();
+    }
+    
+    public static EndpointClass of(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            boolean bulk = path.equals(PRODUCTS_PATH + "/batch") || path.equals(PRODUCTS_PATH + "/import");
+            return bulk ? BULK : WRITES;
+        }
+        if (path.equals(PRODUCTS_PATH)) {
+            boolean paged = "true".equalsIgnoreCase(request.getParameter("paginated"))
+                    || "true".equalsIgnoreCase(request.getParameter("cursor"))
+                    || request.getParameter("after") != null;
+            boolean streamed = "true".equalsIgnoreCase(request.getParameter("stream"));
+            return paged && !streamed ? READS : SEARCH;
+        }
+        if (path.equals(PRODUCTS_PATH + "/search") || path.equals(PRODUCTS_PATH + "/price-range")) {
+            return SEARCH;
+        }
+        return READS;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.example.productservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+    
+    // MALFORMED is always the last record: the item at its index could not be parsed and nothing after it was read
+    public enum Status { CREATED, UPDATED, DELETED, INVALID, CONFLICT, NOT_FOUND, MALFORMED }
+    
+    private final int index;
+    private final Long id;
+    private final Status status;
+    private final String message;
+    private final Map<String, String> errors;
+    
+    public BatchItemResult(int index, Long id, Status status, String message, Map<String, String> errors) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+        this.errors = errors;
+    }
+    
+    public static BatchItemResult success(int index, Long id, Status status) {
+        return new BatchItemResult(index, id, status, null, null);
+    }
+    
+    public static BatchItemResult failure(int index, Long id, Status status, String message) {
+        return new BatchItemResult(index, id, status, message, null);
+    }
+    
+    public static BatchItemResult invalid(int index, Long id, Map<String, String> errors) {
+        return new BatchItemResult(index, id, Status.INVALID, "Validation failed", errors);
+    }
+    
+    // Getters
+    public int getIndex() { return index; }
+    public Long getId() { return id; }
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+    public Map<String, String> getErrors() { return errors; }
+    
+    public boolean isSuccess() {
+        return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+    }
+}
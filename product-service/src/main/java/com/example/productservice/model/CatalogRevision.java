@@ -0,0 +1,26 @@
+package com.example.productservice.model;
+
+/**
+ * Clock-free fingerprint of the whole catalog for collection ETags: row count,
+ * highest id and the sum of every row's @Version. Updates raise the sum,
+ * deletes lower the count, and an insert either raises the count or, when it
+ * replaces a delete, the highest id, since ids come from a sequence.
+ */
+public class CatalogRevision {
+    
+    private final long count;
+    private final long maxId;
+    private final long versionSum;
+    
+    // Aggregates over an empty table are null
+    public CatalogRevision(Long count, Long maxId, Long versionSum) {
+        this.count = count != null ? count : 0L;
+        this.maxId = maxId != null ? maxId : 0L;
+        this.versionSum = versionSum != null ? versionSum : 0L;
+    }
+    
+    // Getters
+    public long getCount() { return count; }
+    public long getMaxId() { return maxId; }
+    public long getVersionSum() { return versionSum; }
+}
@@ -0,0 +1,21 @@
+package com.example.productservice.model;
+
+/**
+ * Snapshot bookkeeping for the catalog: row count plus the newest updatedAt
+ * (in microseconds), which is also where a snapshot replay catches up from.
+ * Wall-clock based, so HTTP validators use {@link CatalogRevision} instead.
+ */
+public class CatalogVersion {
+    
+    private final long count;
+    private final long lastUpdated;
+    
+    public CatalogVersion(long count, long lastUpdated) {
+        this.count = count;
+        this.lastUpdated = lastUpdated;
+    }
+    
+    // Getters
+    public long getCount() { return count; }
+    public long getLastUpdated() { return lastUpdated; }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.productservice.model;
+
+import java.util.List;
+
+public class CursorPage<T> {
+    
+    private final List<T> content;
+    private final int size;
+    private final String nextCursor;
+    
+    public CursorPage(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters
+    public List<T> getContent() { return content; }
+    public int getSize() { return size; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasNext() { return nextCursor != null; }
+}
@@ -0,0 +1,62 @@
+package com.example.productservice.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportReport {
+
+    private final String source;
+    private final String format;
+    private long rows;
+    private long created;
+    private long failed;
+    private long elapsedMillis;
+    private String abortedReason;
+    private final List<BatchItemResult> errors = new ArrayList<>();
+
+    public ImportReport(String source, String format) {
+        this.source = source;
+        this.format = format;
+    }
+
+    public void record(BatchItemResult result, int maxErrors) {
+        rows++;
+        if (result.isSuccess()) {
+            created++;
+        } else {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(result);
+            }
+        }
+    }
+
+    public void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public void abort(String reason) {
+        this.abortedReason = reason;
+    }
+
+    // Getters
+    public String getSource() { return source; }
+    public String getFormat() { return format; }
+    public long getRows() { return rows; }
+    public long getCreated() { return created; }
+    public long getFailed() { return failed; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public String getAbortedReason() { return abortedReason; }
+    public List<BatchItemResult> getErrors() { return errors; }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+    }
+
+    public boolean isCompleted() {
+        return abortedReason == null;
+    }
+}
\ No newline at end of file
@@ -1,17 +1,33 @@
 package com.example.productservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Objects;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", uniqueConstraints = {
+    // Case-insensitive name uniqueness, enforced by the database across replicas
+    @UniqueConstraint(name = Product.NAME_KEY_CONSTRAINT, columnNames = "name_key")
+}, indexes = {
+    @Index(name = "idx_products_name_id", columnList = "name, id"),
+    @Index(name = "idx_products_price_id", columnList = "price, id"),
+    @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_products_updated_at", columnList = "updated_at")
+})
 public class Product {
     
+    public static final String NAME_KEY_CONSTRAINT = "uk_products_name_key";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence so batched inserts don't need a round trip per row for the key
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Product name is required")
@@ -19,6 +35,11 @@ public class Product {
     @Column(nullable = false, length = 100)
     private String name;
     
+    // Lower-cased name, kept in step by setName
+    @JsonIgnore
+    @Column(name = "name_key", nullable = false, length = 100)
+    private String nameKey;
+    
     @Size(max = 500, message = "Description cannot exceed 500 characters")
     @Column(length = 500)
     private String description;
@@ -35,6 +56,10 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -50,7 +75,7 @@ public class Product {
     public Product() {}
     
     public Product(String name, String description, BigDecimal price) {
-        this.name = name;
+        setName(name);
         this.description = description;
         this.price = price;
     }
@@ -60,7 +85,12 @@ public class Product {
     public void setId(Long id) { this.id = id; }
     
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) {
+        this.name = name;
+        this.nameKey = nameKeyOf(name);
+    }
+    
+    public String getNameKey() { return nameKey; }
     
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
@@ -74,6 +104,13 @@ public class Product {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public static String nameKeyOf(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : null;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -96,6 +133,7 @@ public class Product {
                 ", price=" + price +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
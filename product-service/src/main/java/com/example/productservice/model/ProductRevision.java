@@ -0,0 +1,29 @@
+package com.example.productservice.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Validators of a single product for conditional requests: the @Version
+ * behind its ETag and the updatedAt behind its Last-Modified.
+ */
+public class ProductRevision {
+    
+    private final Long id;
+    private final Long version;
+    private final LocalDateTime updatedAt;
+    
+    public ProductRevision(Long id, Long version, LocalDateTime updatedAt) {
+        this.id = id;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+    
+    public static ProductRevision of(Product product) {
+        return new ProductRevision(product.getId(), product.getVersion(), product.getUpdatedAt());
+    }
+    
+    // Getters
+    public Long getId() { return id; }
+    public Long getVersion() { return version; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
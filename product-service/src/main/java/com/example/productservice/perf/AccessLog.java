@@ -0,0 +1,216 @@
+package com.example.productservice.perf;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sampled access log for the product API. Request threads only decide whether
+ * a finished {@link RequestProfile} is logged and offer it to a bounded queue;
+ * a single writer thread formats it as a logfmt line on the {@code access}
+ * logger. Errors (5xx, or streams that timed out or broke off) and requests slower than the slow threshold are always
+ * logged; everything else at the operation's sample rate. When the queue is
+ * full entries are dropped and counted rather than slowing requests down.
+ * Rates and the threshold can be changed at runtime through the accesslog
+ * actuator endpoint.
+ */
+@Component
+public class AccessLog implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLog.class);
+
+    private static final Logger accessLogger = LoggerFactory.getLogger("access");
+
+    private final BlockingQueue<Entry> queue;
+    private final Thread writer;
+    private final LongAdder logged = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile Settings settings;
+
+    @Autowired
+    public AccessLog(@Value("${product.access-log.sample-rate:0.01}") double sampleRate,
+                     @Value("${product.access-log.sample-rates:}") String sampleRates,
+                     @Value("${product.access-log.slow-threshold:500ms}") Duration slowThreshold,
+                     @Value("${product.access-log.queue-capacity:8192}") int queueCapacity) {
+        this.settings = new Settings(sampleRate, parseRates(sampleRates), slowThreshold.toNanos());
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::drain, "access-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void record(RequestProfile profile) {
+        if (!accessLogger.isInfoEnabled()) {
+            return;
+        }
+        Settings current = settings;
+        String reason;
+        if (profile.getStatus() >= 500 || profile.isFailed()) {
+            reason = "error";
+        } else if (profile.getTotalNanos() >= current.slowThresholdNanos) {
+            reason = "slow";
+        } else if (sampled(current.rateFor(profile.getOperation()))) {
+            reason = "sampled";
+        } else {
+            sampledOut.increment();
+            return;
+        }
+        if (!queue.offer(new Entry(profile, reason))) {
+            dropped.increment();
+        }
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        Settings current = settings;
+        settings = new Settings(checkRate(sampleRate), current.sampleRates, current.slowThresholdNanos);
+    }
+
+    // A null rate removes the operation's override
+    public void setSampleRate(String operation, Double sampleRate) {
+        Settings current = settings;
+        Map<String, Double> rates = new LinkedHashMap<>(current.sampleRates);
+        if (sampleRate != null) {
+            rates.put(operation, checkRate(sampleRate));
+        } else {
+            rates.remove(operation);
+        }
+        settings = new Settings(current.sampleRate, rates, current.slowThresholdNanos);
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        Settings current = settings;
+        settings = new Settings(current.sampleRate, current.sampleRates, slowThreshold.toNanos());
+    }
+
+    // Counters
+    public long getLogged() { return logged.sum(); }
+    public long getSampledOut() { return sampledOut.sum(); }
+    public long getDropped() { return dropped.sum(); }
+    public int getQueued() { return queue.size(); }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        writer.interrupt();
+        writer.join(1000);
+        // Whatever was accepted before shutdown is still written
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            write(entry);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                write(queue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Entry entry) {
+        try {
+            accessLogger.info(format(entry));
+            logged.increment();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write access log entry", e);
+        }
+    }
+
+    static String format(Entry entry) {
+        RequestProfile profile = entry.profile;
+        return new StringBuilder(160)
+                .append("ts=").append(profile.getStartedAt())
+                .append(" method=").append(profile.getMethod())
+                .append(" uri=").append(profile.getUri())
+                .append(" op=").append(profile.getOperation())
+                .append(" status=").append(profile.getStatus())
+                .append(" ms=").append(String.format(Locale.ROOT, "%.3f", profile.getTotalMillis()))
+                .append(" sql_ms=").append(String.format(Locale.ROOT, "%.3f", profile.getSqlMillis()))
+                .append(" statements=").append(profile.getStatements())
+                .append(" entities=").append(profile.getEntitiesLoaded())
+                .append(" reason=").append(entry.reason)
+                .toString();
+    }
+
+    private static boolean sampled(double rate) {
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static double checkRate(double rate) {
+        if (rate < 0.0 || rate > 1.0) {
+            throw new IllegalArgumentException("Sample rates must be between 0 and 1, got: " + rate);
+        }
+        return rate;
+    }
+
+    // operation:rate pairs, e.g. getProductById:0.001,createProduct:1
+    static Map<String, Double> parseRates(String value) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        if (value == null || value.trim().isEmpty()) {
+            return rates;
+        }
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("product.access-log.sample-rates entries must be operation:rate, got: " + entry);
+            }
+            rates.put(parts[0].trim(), checkRate(Double.parseDouble(parts[1].trim())));
+        }
+        return rates;
+    }
+
+    public static final class Settings {
+
+        private final double sampleRate;
+        private final Map<String, Double> sampleRates;
+        private final long slowThresholdNanos;
+
+        private Settings(double sampleRate, Map<String, Double> sampleRates, long slowThresholdNanos) {
+            this.sampleRate = checkRate(sampleRate);
+            this.sampleRates = Collections.unmodifiableMap(sampleRates);
+            this.slowThresholdNanos = slowThresholdNanos;
+        }
+
+        double rateFor(String operation) {
+            Double rate = sampleRates.get(operation);
+            return rate != null ? rate : sampleRate;
+        }
+
+        // Getters
+        public double getSampleRate() { return sampleRate; }
+        public Map<String, Double> getSampleRates() { return sampleRates; }
+        public long getSlowThresholdMillis() { return Duration.ofNanos(slowThresholdNanos).toMillis(); }
+    }
+
+    static final class Entry {
+
+        private final RequestProfile profile;
+        private final String reason;
+
+        Entry(RequestProfile profile, String reason) {
+            this.profile = profile;
+            this.reason = reason;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.example.productservice.perf;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/accesslog: current sampling settings and counters. POST changes
+ * them at runtime, e.g. {"sampleRate": 0.05}, {"operation": "searchProducts",
+ * "rate": 1} (omit rate to drop the override) or {"slowThresholdMs": 200}.
+ * The access logger itself can be switched off via /actuator/loggers/access.
+ */
+@Component
+@Endpoint(id = "accesslog")
+public class AccessLogEndpoint {
+
+    private final AccessLog accessLog;
+
+    @Autowired
+    public AccessLogEndpoint(AccessLog accessLog) {
+        this.accessLog = accessLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("settings", accessLog.getSettings());
+        status.put("logged", accessLog.getLogged());
+        status.put("sampledOut", accessLog.getSampledOut());
+        status.put("dropped", accessLog.getDropped());
+        status.put("queued", accessLog.getQueued());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> configure(@Nullable Double sampleRate, @Nullable String operation,
+                                         @Nullable Double rate, @Nullable Long slowThresholdMs) {
+        if (sampleRate != null) {
+            accessLog.setSampleRate(sampleRate);
+        }
+        if (operation != null) {
+            accessLog.setSampleRate(operation, rate);
+        }
+        if (slowThresholdMs != null) {
+            accessLog.setSlowThreshold(Duration.ofMillis(slowThresholdMs));
+        }
+        return status();
+    }
+}
\ No newline at end of file
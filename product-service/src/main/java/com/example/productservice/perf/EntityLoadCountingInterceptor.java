@@ -0,0 +1,21 @@
+package com.example.productservice.perf;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+
+/**
+ * Counts entities hydrated for the current request.
+ */
+public class EntityLoadCountingInterceptor extends EmptyInterceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestProfile profile = RequestProfile.current();
+        if (profile != null) {
+            profile.entityLoaded();
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.example.productservice.perf;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/productperf: the slowest recent requests with their time broken
+ * down into SQL, ORM, serialization and everything else.
+ */
+@Component
+@Endpoint(id = "productperf")
+public class ProductPerfEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final RequestProfiler requestProfiler;
+
+    @Autowired
+    public ProductPerfEndpoint(RequestProfiler requestProfiler) {
+        this.requestProfiler = requestProfiler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowest(@Nullable Integer limit) {
+        List<RequestProfile> slowest = requestProfiler.slowest(limit != null ? limit : DEFAULT_LIMIT);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sampled", requestProfiler.getRecentCount());
+        report.put("slowest", slowest);
+        return report;
+    }
+}
\ No newline at end of file
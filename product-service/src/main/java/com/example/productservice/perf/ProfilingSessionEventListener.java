@@ -0,0 +1,39 @@
+package com.example.productservice.perf;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Created by Hibernate for every session (hibernate.session.events.auto), so it
+ * only holds the start time of the statement in flight.
+ */
+public class ProfilingSessionEventListener extends BaseSessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestProfile profile = RequestProfile.current();
+        if (profile != null) {
+            profile.addStatement(System.nanoTime() - statementStart);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestProfile profile = RequestProfile.current();
+        if (profile != null) {
+            profile.addStatement(System.nanoTime() - batchStart);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.example.productservice.perf;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Where one request spent its time. Bound to the request thread between
+ * preHandle and afterCompletion; the Hibernate and repository hooks add to
+ * whichever profile is current, and do nothing outside a profiled request.
+ */
+public class RequestProfile {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private final String operation;
+    private final String method;
+    private final String uri;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private long totalNanos;
+    private long serializationStartNanos;
+    private long serializationNanos;
+    private long repositoryNanos;
+    private long sqlNanos;
+    private int repositoryCalls;
+    private int statements;
+    private int entitiesLoaded;
+    private int status;
+    private boolean failed;
+    private final Map<String, Long> repositoryMethodNanos = new LinkedHashMap<>();
+
+    RequestProfile(String operation, String method, String uri) {
+        this.operation = operation;
+        this.method = method;
+        this.uri = uri;
+    }
+
+    public static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    static RequestProfile start(String operation, String method, String uri) {
+        RequestProfile profile = new RequestProfile(operation, method, uri);
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    static RequestProfile detach() {
+        RequestProfile profile = CURRENT.get();
+        CURRENT.remove();
+        return profile;
+    }
+
+    void finish(int status) {
+        this.status = status;
+        this.totalNanos = System.nanoTime() - startNanos;
+    }
+
+    // Timed out or broke off after the status was committed
+    void markFailed() {
+        this.failed = true;
+    }
+
+    public void serializationStarted() {
+        if (serializationStartNanos == 0) {
+            serializationStartNanos = System.nanoTime();
+        }
+    }
+
+    void serializationFinished() {
+        if (serializationStartNanos != 0) {
+            serializationNanos = System.nanoTime() - serializationStartNanos;
+        }
+    }
+
+    public void addRepositoryCall(String name, long nanos) {
+        repositoryCalls++;
+        repositoryNanos += nanos;
+        repositoryMethodNanos.merge(name, nanos, Long::sum);
+    }
+
+    public void addStatement(long nanos) {
+        statements++;
+        sqlNanos += nanos;
+    }
+
+    public void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    // Getters
+    public String getOperation() { return operation; }
+    public String getMethod() { return method; }
+    public String getUri() { return uri; }
+    public Instant getStartedAt() { return startedAt; }
+    public int getStatus() { return status; }
+    public boolean isFailed() { return failed; }
+    public int getRepositoryCalls() { return repositoryCalls; }
+    public int getStatements() { return statements; }
+    public int getEntitiesLoaded() { return entitiesLoaded; }
+
+    @JsonIgnore
+    public long getTotalNanos() { return totalNanos; }
+    @JsonIgnore
+    public long getSqlNanos() { return sqlNanos; }
+    @JsonIgnore
+    public long getSerializationNanos() { return serializationNanos; }
+
+    public double getTotalMillis() { return millis(totalNanos); }
+    public double getRepositoryMillis() { return millis(repositoryNanos); }
+    public double getSqlMillis() { return millis(sqlNanos); }
+    public double getSerializationMillis() { return millis(serializationNanos); }
+
+    // Repository time not spent executing SQL: hydration, flush and dirty checking
+    public double getOrmMillis() { return millis(Math.max(0, repositoryNanos - sqlNanos)); }
+
+    public double getOtherMillis() {
+        return millis(Math.max(0, totalNanos - Math.max(repositoryNanos, sqlNanos) - serializationNanos));
+    }
+
+    public Map<String, Double> getRepositoryMethodMillis() {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        repositoryMethodNanos.forEach((name, nanos) -> millis.put(name, millis(nanos)));
+        return millis;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.example.productservice.perf;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes finished request profiles as per-operation meters and keeps the
+ * most recent ones for the productperf actuator endpoint.
+ */
+@Component
+public class RequestProfiler {
+
+    private final MeterRegistry meterRegistry;
+    private final int recentSize;
+    private final Deque<RequestProfile> recent = new ArrayDeque<>();
+
+    @Autowired
+    public RequestProfiler(MeterRegistry meterRegistry, @Value("${product.perf.recent-size:500}") int recentSize) {
+        this.meterRegistry = meterRegistry;
+        this.recentSize = recentSize;
+    }
+
+    public void record(RequestProfile profile) {
+        String operation = profile.getOperation();
+        String status = String.valueOf(profile.getStatus());
+        Timer.builder("product.api.requests")
+                .description("ProductController operations")
+                .tags("operation", operation, "status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(profile.getTotalNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("product.api.sql")
+                .description("Time spent executing SQL per operation")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(profile.getSqlNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("product.api.serialization")
+                .description("Time spent writing the response body per operation")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(profile.getSerializationNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("product.api.statements")
+                .description("JDBC statements executed per request")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(profile.getStatements());
+        DistributionSummary.builder("product.api.entities.loaded")
+                .description("Entities hydrated per request")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(profile.getEntitiesLoaded());
+
+        synchronized (recent) {
+            if (recent.size() == recentSize) {
+                recent.removeFirst();
+            }
+            recent.addLast(profile);
+        }
+    }
+
+    public List<RequestProfile> slowest(int limit) {
+        List<RequestProfile> snapshot;
+        synchronized (recent) {
+            snapshot = new ArrayList<>(recent);
+        }
+        return snapshot.stream()
+                .sorted(Comparator.comparingLong(RequestProfile::getTotalNanos).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public int getRecentCount() {
+        synchronized (recent) {
+            return recent.size();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.example.productservice.perf;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Starts a {@link RequestProfile} for each handled request and hands it to the
+ * {@link RequestProfiler} and the {@link AccessLog} when the request completes. Streaming responses that
+ * continue on another thread are access-logged once the async request completes, but kept out of the
+ * profiler: an SSE stream open for minutes would swamp the slowest-request stats.
+ */
+public class RequestProfilingInterceptor implements AsyncHandlerInterceptor {
+
+    private final RequestProfiler requestProfiler;
+    private final AccessLog accessLog;
+
+    public RequestProfilingInterceptor(RequestProfiler requestProfiler, AccessLog accessLog) {
+        this.requestProfiler = requestProfiler;
+        this.accessLog = accessLog;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod && request.getDispatcherType() == DispatcherType.REQUEST) {
+            RequestProfile.start(((HandlerMethod) handler).getMethod().getName(),
+                    request.getMethod(), request.getRequestURI());
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        // For @ResponseBody handlers the body has been written by now
+        RequestProfile profile = RequestProfile.current();
+        if (profile != null) {
+            profile.serializationFinished();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestProfile profile = RequestProfile.detach();
+        if (profile != null) {
+            profile.finish(response.getStatus());
+            requestProfiler.record(profile);
+            accessLog.record(profile);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        RequestProfile profile = RequestProfile.detach();
+        if (profile != null && request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncCompletion(profile, accessLog));
+        }
+    }
+
+    // Listeners outlive the async dispatch, so onComplete sees the final status
+    private static final class AsyncCompletion implements AsyncListener {
+
+        private final RequestProfile profile;
+        private final AccessLog accessLog;
+
+        AsyncCompletion(RequestProfile profile, AccessLog accessLog) {
+            this.profile = profile;
+            this.accessLog = accessLog;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            profile.finish(((HttpServletResponse) event.getSuppliedResponse()).getStatus());
+            accessLog.record(profile);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            profile.markFailed();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // A stream broken off mid-body still has the 200 it started with
+            profile.markFailed();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
\ No newline at end of file
@@ -1,26 +1,81 @@
 package com.example.productservice.repository;
 
+import com.example.productservice.model.CatalogRevision;
 import com.example.productservice.model.Product;
+import com.example.productservice.model.ProductRevision;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+    
+    // Rows pulled per JDBC round trip when streaming the catalog
+    String STREAM_FETCH_SIZE = "500";
     
     List<Product> findByNameContainingIgnoreCase(String name);
     
     List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
     
-    @Query("SELECT p FROM Product p WHERE p.name LIKE %:keyword% OR p.description LIKE %:keyword%")
+    List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Sort sort);
+    
+    List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+    
+    // Fallback for when the in-memory search index is not built yet
+    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Product> searchByKeyword(@Param("keyword") String keyword);
     
     Optional<Product> findByNameIgnoreCase(String name);
     
     boolean existsByNameIgnoreCase(String name);
+    
+    // Set-based lookups for batch writes; rows are (id, name key), served by uk_products_name_key
+    @Query("SELECT p.id, p.nameKey FROM Product p WHERE p.nameKey IN :names")
+    List<Object[]> findIdsByLowerCaseNames(@Param("names") Collection<String> names);
+    
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    // Validator lookups for conditional requests; neither hydrates an entity
+    @Query("SELECT new com.example.productservice.model.ProductRevision(p.id, p.version, p.updatedAt) "
+            + "FROM Product p WHERE p.id = :id")
+    Optional<ProductRevision> findRevisionById(@Param("id") Long id);
+    
+    @Query("SELECT new com.example.productservice.model.CatalogRevision(COUNT(p), MAX(p.id), SUM(p.version)) "
+            + "FROM Product p")
+    CatalogRevision findCatalogRevision();
+    
+    // Snapshot bookkeeping: single row of (count, max updatedAt)
+    @Query("SELECT COUNT(p), MAX(p.updatedAt) FROM Product p")
+    List<Object[]> findCatalogVersion();
+    
+    // Snapshot catch-up: rows changed since the snapshot, and the ids still present
+    List<Product> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+    
+    @Query("SELECT p.id FROM Product p ORDER BY p.id")
+    List<Long> findAllIdsOrderById();
+    
+    // Must be consumed and closed inside a transaction
+    @QueryHints({
+        @QueryHint(name = FETCH_SIZE, value = STREAM_FETCH_SIZE),
+        @QueryHint(name = READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.model.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+    
+    // Keyset page: rows strictly after (afterValue, afterId) in (sortBy, id) order, no count query
+    List<Product> findPageAfter(String sortBy, boolean descending, Object afterValue, Long afterId, int limit);
+    
+    // Projections: only the named attributes are selected, as field -> value rows; no entity is hydrated.
+    // A limit of 0 means no limit.
+    List<Map<String, Object>> findFields(Collection<String> fields, Specification<Product> where, Sort sort,
+                                         long offset, int limit);
+    
+    List<Map<String, Object>> findFieldsAfter(Collection<String> fields, String sortBy, boolean descending,
+                                              Object afterValue, Long afterId, int limit);
+}
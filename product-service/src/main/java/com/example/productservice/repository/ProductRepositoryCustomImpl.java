@@ -0,0 +1,126 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.model.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Product> findPageAfter(String sortBy, boolean descending, Object afterValue, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> product = query.from(Product.class);
+        if (afterId != null) {
+            query.where(after(cb, product, sortBy, descending, afterValue, afterId));
+        }
+        query.select(product).orderBy(keysetOrder(cb, product, sortBy, descending));
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    @Override
+    public List<Map<String, Object>> findFields(Collection<String> fields, Specification<Product> where, Sort sort,
+                                                long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        if (where != null) {
+            Predicate predicate = where.toPredicate(product, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, product, cb));
+        return fetchRows(query, product, fields, offset, limit);
+    }
+    
+    @Override
+    public List<Map<String, Object>> findFieldsAfter(Collection<String> fields, String sortBy, boolean descending,
+                                                     Object afterValue, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        if (afterId != null) {
+            query.where(after(cb, product, sortBy, descending, afterValue, afterId));
+        }
+        query.orderBy(keysetOrder(cb, product, sortBy, descending));
+        return fetchRows(query, product, fields, 0, limit);
+    }
+    
+    // (key, id) > (afterValue, afterId), expanded since JPQL has no row-value comparison
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Root<Product> product, String sortBy, boolean descending,
+                                   Object afterValue, Long afterId) {
+        Expression<Long> id = product.get("id");
+        if ("id".equals(sortBy)) {
+            return descending ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId);
+        }
+        Expression<Comparable> key = product.get(sortBy);
+        Comparable value = (Comparable) afterValue;
+        Predicate pastKey = descending ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+        Predicate pastId = descending ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId);
+        return cb.or(pastKey, cb.and(cb.equal(key, value), pastId));
+    }
+    
+    private static List<Order> keysetOrder(CriteriaBuilder cb, Root<Product> product, String sortBy, boolean descending) {
+        List<Order> orders = new ArrayList<>();
+        if (!"id".equals(sortBy)) {
+            Expression<?> key = product.get(sortBy);
+            orders.add(descending ? cb.desc(key) : cb.asc(key));
+        }
+        Expression<Long> id = product.get("id");
+        orders.add(descending ? cb.desc(id) : cb.asc(id));
+        return orders;
+    }
+    
+    private List<Map<String, Object>> fetchRows(CriteriaQuery<Tuple> query, Root<Product> product,
+                                                Collection<String> fields, long offset, int limit) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(product.get(field).alias(field));
+        }
+        query.multiselect(selections);
+        
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (offset > 0) {
+            typedQuery.setFirstResult(Math.toIntExact(offset));
+        }
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Filters for the projection queries in {@link ProductRepositoryCustom}; each
+ * mirrors the derived or JPQL query of the entity-returning equivalent.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> idIn(Collection<Long> ids) {
+        return (product, query, cb) -> product.get("id").in(ids);
+    }
+
+    public static Specification<Product> keywordMatches(String keyword) {
+        String pattern = "%" + keyword.toLowerCase(Locale.ROOT) + "%";
+        return (product, query, cb) -> cb.or(
+                cb.like(cb.lower(product.get("name")), pattern),
+                cb.like(cb.lower(product.get("description")), pattern));
+    }
+
+    public static Specification<Product> priceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return (product, query, cb) -> cb.between(product.get("price"), minPrice, maxPrice);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.model.Product;
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking reads of the products table over R2DBC, for the reactive API.
+ * Results are streamed row by row, so a slow subscriber holds back the cursor
+ * instead of buffering the table. Only created by the reactive configuration.
+ */
+public class ReactiveProductRepository {
+
+    private static final String COLUMNS = "id, name, description, price, created_at, updated_at, version";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveProductRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<Product> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products ORDER BY id")
+                .map((row, metadata) -> toProduct(row))
+                .all();
+    }
+
+    public Flux<Product> findPage(int page, int size) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products ORDER BY id LIMIT :limit OFFSET :offset")
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map((row, metadata) -> toProduct(row))
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT COUNT(*) FROM products")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Product> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> toProduct(row))
+                .one();
+    }
+
+    public Flux<Product> searchByKeyword(String keyword) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products "
+                        + "WHERE LOWER(name) LIKE :pattern OR LOWER(description) LIKE :pattern ORDER BY id")
+                .bind("pattern", "%" + keyword.toLowerCase() + "%")
+                .map((row, metadata) -> toProduct(row))
+                .all();
+    }
+
+    public Flux<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM products "
+                        + "WHERE price BETWEEN :min AND :max ORDER BY price, id")
+                .bind("min", minPrice)
+                .bind("max", maxPrice)
+                .map((row, metadata) -> toProduct(row))
+                .all();
+    }
+
+    private static Product toProduct(Row row) {
+        Product product = new Product(row.get("name", String.class), row.get("description", String.class),
+                row.get("price", BigDecimal.class));
+        product.setId(row.get("id", Long.class));
+        product.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        product.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        product.setVersion(row.get("version", Long.class));
+        return product;
+    }
+}
\ No newline at end of file
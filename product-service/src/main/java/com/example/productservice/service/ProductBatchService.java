@@ -0,0 +1,311 @@
+package com.example.productservice.service;
+
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.model.BatchItemResult;
+import com.example.productservice.model.BatchItemResult.Status;
+import com.example.productservice.model.Product;
+import com.example.productservice.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Set-based create/update/delete for large batches. Input is consumed in
+ * chunks of {@code product.batch.chunk-size}; each chunk is validated as a
+ * whole, checked against the database with a single query, written with JDBC
+ * batching and committed in its own transaction before its per-item results
+ * are handed to the sink. Memory is bounded by the chunk, not the input.
+ */
+@Service
+public class ProductBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBatchService.class);
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    @Autowired
+    public ProductBatchService(ProductRepository productRepository, EntityManager entityManager,
+                               Validator validator, PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${product.batch.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    public void createProducts(Iterator<Product> products, Consumer<BatchItemResult> sink) {
+        processInChunks(products, this::createChunk, sink);
+    }
+
+    public void updateProducts(Iterator<Product> products, Consumer<BatchItemResult> sink) {
+        processInChunks(products, this::updateChunk, sink);
+    }
+
+    public void deleteProducts(Iterator<Long> ids, Consumer<BatchItemResult> sink) {
+        processInChunks(ids, this::deleteChunk, sink);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private <T> void processInChunks(Iterator<T> items, Function<Chunk<T>, BatchItemResult[]> writer,
+                                     Consumer<BatchItemResult> sink) {
+        int offset = 0;
+        RuntimeException readFailure = null;
+        while (readFailure == null && items.hasNext()) {
+            List<T> values = new ArrayList<>(chunkSize);
+            try {
+                while (items.hasNext() && values.size() < chunkSize) {
+                    values.add(items.next());
+                }
+            } catch (RuntimeException e) {
+                // Unreadable item: still write the ones before it, so the reported results stay contiguous
+                readFailure = e;
+                if (values.isEmpty()) {
+                    break;
+                }
+            }
+            Chunk<T> chunk = new Chunk<>(offset, values);
+            BatchItemResult[] results = transactionTemplate.execute(status -> writer.apply(chunk));
+            // Only report once the chunk has committed
+            for (BatchItemResult result : results) {
+                sink.accept(result);
+            }
+            offset += values.size();
+            logger.debug("Processed batch chunk of {} items, {} so far", values.size(), offset);
+        }
+        if (readFailure != null) {
+            throw readFailure;
+        }
+    }
+
+    private BatchItemResult[] createChunk(Chunk<Product> chunk) {
+        List<Product> products = chunk.values;
+        BatchItemResult[] results = new BatchItemResult[products.size()];
+        String[] keys = new String[products.size()];
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            Map<String, String> errors = validate(product);
+            if (!errors.isEmpty()) {
+                results[i] = BatchItemResult.invalid(chunk.index(i), null, errors);
+            } else if (!seen.add(keys[i] = nameKey(product.getName()))) {
+                results[i] = BatchItemResult.failure(chunk.index(i), null, Status.CONFLICT,
+                        "Duplicate name within batch: " + product.getName());
+            }
+        }
+
+        Map<String, Long> owners = findOwnersByName(seen);
+        List<Integer> positions = new ArrayList<>();
+        List<Product> toSave = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Product product = products.get(i);
+            if (owners.containsKey(keys[i])) {
+                results[i] = BatchItemResult.failure(chunk.index(i), null, Status.CONFLICT,
+                        "Product already exists with name: " + product.getName());
+                continue;
+            }
+            product.setId(null);
+            positions.add(i);
+            toSave.add(product);
+        }
+
+        productRepository.saveAll(toSave);
+        entityManager.flush();
+        for (int j = 0; j < toSave.size(); j++) {
+            Product saved = toSave.get(j);
+            int i = positions.get(j);
+            results[i] = BatchItemResult.success(chunk.index(i), saved.getId(), Status.CREATED);
+            eventPublisher.publishEvent(ProductChangedEvent.created(saved));
+        }
+        entityManager.clear();
+        return results;
+    }
+
+    private BatchItemResult[] updateChunk(Chunk<Product> chunk) {
+        List<Product> updates = chunk.values;
+        BatchItemResult[] results = new BatchItemResult[updates.size()];
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            Product update = updates.get(i);
+            Map<String, String> errors = validate(update);
+            Long id = update == null ? null : update.getId();
+            if (id == null) {
+                errors.put("id", "Product id is required");
+            }
+            if (!errors.isEmpty()) {
+                results[i] = BatchItemResult.invalid(chunk.index(i), id, errors);
+            } else if (!ids.add(id)) {
+                results[i] = BatchItemResult.failure(chunk.index(i), id, Status.CONFLICT,
+                        "Duplicate id within batch");
+            }
+        }
+
+        Map<Long, Product> existing = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            existing.put(product.getId(), product);
+        }
+
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            if (results[i] == null) {
+                names.add(nameKey(updates.get(i).getName()));
+            }
+        }
+        Map<String, Long> owners = findOwnersByName(names);
+        Map<String, Long> claimed = new HashMap<>();
+        List<Product> changed = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+
+        for (int i = 0; i < updates.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Product update = updates.get(i);
+            Product target = existing.get(update.getId());
+            String key = nameKey(update.getName());
+            Long owner = owners.get(key);
+            // Claimed only by items that succeed, so a failed item cannot block the name for later ones
+            Long claimant = claimed.get(key);
+            if (target == null) {
+                results[i] = BatchItemResult.failure(chunk.index(i), update.getId(), Status.NOT_FOUND,
+                        "Product not found with id: " + update.getId());
+            } else if ((owner != null && !owner.equals(update.getId())) || claimant != null) {
+                results[i] = BatchItemResult.failure(chunk.index(i), update.getId(), Status.CONFLICT,
+                        "Product already exists with name: " + update.getName());
+            } else {
+                target.setName(update.getName());
+                target.setDescription(update.getDescription());
+                target.setPrice(update.getPrice());
+                claimed.put(key, update.getId());
+                changed.add(target);
+                positions.add(i);
+            }
+        }
+
+        // Managed entities: the flush issues the UPDATEs as JDBC batches
+        entityManager.flush();
+        for (int j = 0; j < changed.size(); j++) {
+            Product product = changed.get(j);
+            int i = positions.get(j);
+            results[i] = BatchItemResult.success(chunk.index(i), product.getId(), Status.UPDATED);
+            eventPublisher.publishEvent(ProductChangedEvent.updated(product));
+        }
+        entityManager.clear();
+        return results;
+    }
+
+    private BatchItemResult[] deleteChunk(Chunk<Long> chunk) {
+        List<Long> ids = chunk.values;
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        Set<Long> requested = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results[i] = BatchItemResult.invalid(chunk.index(i), null,
+                        singletonError("id", "Product id is required"));
+            } else if (!requested.add(id)) {
+                results[i] = BatchItemResult.failure(chunk.index(i), id, Status.CONFLICT, "Duplicate id within batch");
+            }
+        }
+
+        Set<Long> existing = new HashSet<>(productRepository.findExistingIds(requested));
+        if (!existing.isEmpty()) {
+            productRepository.deleteAllByIdInBatch(existing);
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Long id = ids.get(i);
+            if (existing.contains(id)) {
+                results[i] = BatchItemResult.success(chunk.index(i), id, Status.DELETED);
+                eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+            } else {
+                results[i] = BatchItemResult.failure(chunk.index(i), id, Status.NOT_FOUND,
+                        "Product not found with id: " + id);
+            }
+        }
+        return results;
+    }
+
+    private Map<String, String> validate(Product product) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (product == null) {
+            errors.put("product", "Product is required");
+            return errors;
+        }
+        for (ConstraintViolation<Product> violation : validator.validate(product)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    // One query for the whole chunk instead of an existsByNameIgnoreCase per item
+    private Map<String, Long> findOwnersByName(Set<String> nameKeys) {
+        Map<String, Long> owners = new HashMap<>();
+        if (nameKeys.isEmpty()) {
+            return owners;
+        }
+        for (Object[] row : productRepository.findIdsByLowerCaseNames(nameKeys)) {
+            owners.put((String) row[1], (Long) row[0]);
+        }
+        return owners;
+    }
+
+    private static String nameKey(String name) {
+        return Product.nameKeyOf(name);
+    }
+
+    private static Map<String, String> singletonError(String field, String message) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put(field, message);
+        return errors;
+    }
+
+    private static final class Chunk<T> {
+        private final int offset;
+        private final List<T> values;
+
+        private Chunk(int offset, List<T> values) {
+            this.offset = offset;
+            this.values = values;
+        }
+
+        private int index(int position) {
+            return offset + position;
+        }
+    }
+}
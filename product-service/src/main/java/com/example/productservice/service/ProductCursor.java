@@ -0,0 +1,109 @@
+package com.example.productservice.service;
+
+import com.example.productservice.exception.InvalidRequestParameterException;
+import com.example.productservice.model.Product;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Opaque keyset position: the (sortBy, id) tuple of the last row of a page.
+ * Encoded as URL-safe base64 of {@code sortBy|direction|id|value}.
+ */
+public final class ProductCursor {
+
+    public static final Set<String> SORTABLE_FIELDS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList("id", "name", "price", "createdAt")));
+
+    private static final String SEPARATOR = "|";
+
+    private final String sortBy;
+    private final boolean descending;
+    private final Long id;
+    private final Object sortValue;
+
+    private ProductCursor(String sortBy, boolean descending, Long id, Object sortValue) {
+        this.sortBy = sortBy;
+        this.descending = descending;
+        this.id = id;
+        this.sortValue = sortValue;
+    }
+
+    public static ProductCursor after(Product product, String sortBy, boolean descending) {
+        return new ProductCursor(sortBy, descending, product.getId(), sortValueOf(product, sortBy));
+    }
+
+    public static ProductCursor after(Long id, Object sortValue, String sortBy, boolean descending) {
+        return new ProductCursor(sortBy, descending, id, sortValue);
+    }
+
+    public static ProductCursor decode(String token, String sortBy, boolean descending) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestParameterException("Malformed cursor", e);
+        }
+        String[] parts = decoded.split("\\" + SEPARATOR, 4);
+        if (parts.length != 4) {
+            throw new InvalidRequestParameterException("Malformed cursor");
+        }
+        if (!parts[0].equals(sortBy) || !parts[1].equals(direction(descending))) {
+            throw new InvalidRequestParameterException("Cursor was issued for a different sort order");
+        }
+        try {
+            return new ProductCursor(sortBy, descending, Long.valueOf(parts[2]), parseSortValue(sortBy, parts[3]));
+        } catch (RuntimeException e) {
+            throw new InvalidRequestParameterException("Malformed cursor", e);
+        }
+    }
+
+    public static void checkSortable(String sortBy) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new InvalidRequestParameterException(
+                    "Cursor pagination supports sortBy " + SORTABLE_FIELDS + ", got: " + sortBy);
+        }
+    }
+
+    public String encode() {
+        String raw = sortBy + SEPARATOR + direction(descending) + SEPARATOR + id + SEPARATOR + formatSortValue(sortValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Long getId() { return id; }
+    public Object getSortValue() { return sortValue; }
+
+    private static String direction(boolean descending) {
+        return descending ? "desc" : "asc";
+    }
+
+    private static Object sortValueOf(Product product, String sortBy) {
+        switch (sortBy) {
+            case "id": return product.getId();
+            case "name": return product.getName();
+            case "price": return product.getPrice();
+            case "createdAt": return product.getCreatedAt();
+            default: throw new InvalidRequestParameterException("Unsupported cursor sort field: " + sortBy);
+        }
+    }
+
+    private static Object parseSortValue(String sortBy, String raw) {
+        switch (sortBy) {
+            case "id": return Long.valueOf(raw);
+            case "name": return raw;
+            case "price": return new BigDecimal(raw);
+            case "createdAt": return LocalDateTime.parse(raw);
+            default: throw new InvalidRequestParameterException("Unsupported cursor sort field: " + sortBy);
+        }
+    }
+
+    private static String formatSortValue(Object value) {
+        return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : String.valueOf(value);
+    }
+}
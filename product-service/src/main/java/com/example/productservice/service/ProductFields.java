@@ -0,0 +1,73 @@
+package com.example.productservice.service;
+
+import com.example.productservice.exception.InvalidRequestParameterException;
+import com.example.productservice.model.Product;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets for the {@code fields=} request parameter. The id is always
+ * selected; the rest follow the order of {@link #SELECTABLE_FIELDS} so every
+ * row of a response has the same shape.
+ */
+public final class ProductFields {
+
+    public static final Set<String> SELECTABLE_FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(
+            Arrays.asList("id", "name", "description", "price", "createdAt", "updatedAt", "version")));
+
+    private ProductFields() {
+    }
+
+    public static Set<String> parse(String fields) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!SELECTABLE_FIELDS.contains(name)) {
+                throw new InvalidRequestParameterException(
+                        "Unknown field: " + name + "; selectable fields are " + SELECTABLE_FIELDS);
+            }
+            requested.add(name);
+        }
+        if (requested.isEmpty()) {
+            throw new InvalidRequestParameterException("fields must name at least one of " + SELECTABLE_FIELDS);
+        }
+
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : SELECTABLE_FIELDS) {
+            if (field.equals("id") || requested.contains(field)) {
+                selected.add(field);
+            }
+        }
+        return selected;
+    }
+
+    // Same row shape as the repository projections, built from an already loaded product
+    public static Map<String, Object> project(Product product, Set<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            row.put(field, valueOf(product, field));
+        }
+        return row;
+    }
+
+    private static Object valueOf(Product product, String field) {
+        switch (field) {
+            case "id": return product.getId();
+            case "name": return product.getName();
+            case "description": return product.getDescription();
+            case "price": return product.getPrice();
+            case "createdAt": return product.getCreatedAt();
+            case "updatedAt": return product.getUpdatedAt();
+            case "version": return product.getVersion();
+            default: throw new InvalidRequestParameterException("Unknown field: " + field);
+        }
+    }
+}
\ No newline at end of file
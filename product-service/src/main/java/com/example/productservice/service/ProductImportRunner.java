@@ -0,0 +1,53 @@
+package com.example.productservice.service;
+
+import com.example.productservice.model.ImportReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Imports {@code product.import.file} on startup, e.g. to seed an environment
+ * from a catalog dump instead of data.sql.
+ */
+@Component
+@ConditionalOnProperty(name = "product.import.file")
+public class ProductImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportRunner.class);
+
+    private final ProductImportService productImportService;
+    private final Path file;
+    private final String format;
+
+    @Autowired
+    public ProductImportRunner(ProductImportService productImportService,
+                               @Value("${product.import.file}") String file,
+                               @Value("${product.import.format:}") String format) {
+        this.productImportService = productImportService;
+        this.file = Paths.get(file);
+        this.format = format;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        ProductImportService.Format importFormat =
+                ProductImportService.Format.detect(format.isEmpty() ? file.getFileName().toString() : format);
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            ImportReport report = productImportService.importProducts(inputStream, importFormat, file.toString());
+            if (!report.isCompleted()) {
+                logger.error("Startup import of {} stopped early: {}", file, report.getAbortedReason());
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.example.productservice.service;
+
+import com.example.productservice.exception.InvalidRequestParameterException;
+import com.example.productservice.model.BatchItemResult;
+import com.example.productservice.model.ImportReport;
+import com.example.productservice.model.Product;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Loads product dumps through {@link ProductBatchService}. Rows are parsed one
+ * at a time from the stream and handed over in the batch service's chunks, so
+ * memory stays bounded by the chunk size whatever the file size.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format detect(String hint) {
+            String value = hint == null ? "" : hint.toLowerCase(Locale.ROOT);
+            if (value.endsWith(".csv") || value.contains("csv")) {
+                return CSV;
+            }
+            if (value.endsWith(".ndjson") || value.endsWith(".jsonl") || value.contains("ndjson")
+                    || value.contains("json")) {
+                return NDJSON;
+            }
+            throw new InvalidRequestParameterException("Unsupported import format: " + hint);
+        }
+    }
+
+    private final ProductBatchService productBatchService;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+    private final Counter createdRows;
+    private final Counter failedRows;
+    private final int maxReportedErrors;
+    private final long progressInterval;
+
+    @Autowired
+    public ProductImportService(ProductBatchService productBatchService, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${product.import.max-reported-errors:100}") int maxReportedErrors,
+                                @Value("${product.import.progress-interval:10000}") long progressInterval) {
+        this.productBatchService = productBatchService;
+        this.ndjsonReader = objectMapper.readerFor(Product.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        CsvMapper csvMapper = new CsvMapper();
+        csvMapper.findAndRegisterModules();
+        this.csvReader = csvMapper.readerFor(Product.class)
+                .with(CsvSchema.emptySchema().withHeader().withColumnReordering(true))
+                .with(CsvParser.Feature.TRIM_SPACES)
+                .with(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.createdRows = Counter.builder("products.import.rows").tag("outcome", "created").register(meterRegistry);
+        this.failedRows = Counter.builder("products.import.rows").tag("outcome", "failed").register(meterRegistry);
+        this.maxReportedErrors = maxReportedErrors;
+        this.progressInterval = progressInterval;
+    }
+
+    public ImportReport importProducts(InputStream inputStream, Format format, String source) throws IOException {
+        ImportReport report = new ImportReport(source, format.name());
+        ObjectReader reader = format == Format.CSV ? csvReader : ndjsonReader;
+        long started = System.nanoTime();
+        logger.info("Importing products from {} as {}", source, format);
+
+        try (MappingIterator<Product> rows = reader.readValues(inputStream)) {
+            RowIterator products = new RowIterator(rows);
+            productBatchService.createProducts(products, result -> {
+                String parseError = products.parseErrors.remove(result.getIndex());
+                if (parseError != null) {
+                    result = BatchItemResult.invalid(result.getIndex(), null,
+                            Collections.singletonMap("row", parseError));
+                }
+                report.record(result, maxReportedErrors);
+                (result.isSuccess() ? createdRows : failedRows).increment();
+                if (report.getRows() % progressInterval == 0) {
+                    logProgress(report, started);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Malformed beyond a single row; everything before it is already committed
+            report.abort(e.getCause().getMessage());
+            logger.warn("Import from {} aborted after {} rows: {}", source, report.getRows(), e.getCause().getMessage());
+        }
+
+        report.finish((System.nanoTime() - started) / 1_000_000);
+        logger.info("Imported products from {}: {} rows, {} created, {} failed in {} ms ({} rows/s)",
+                source, report.getRows(), report.getCreated(), report.getFailed(),
+                report.getElapsedMillis(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void logProgress(ImportReport report, long started) {
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        logger.info("Import progress: {} rows ({} created, {} failed), {} rows/s",
+                report.getRows(), report.getCreated(), report.getFailed(),
+                report.getRows() * 1000 / elapsedMillis);
+    }
+
+    /**
+     * Turns rows that fail to bind (a non-numeric price, say) into null items so
+     * the batch service still reports them at their position; the parse message
+     * is kept until that result comes back.
+     */
+    private static final class RowIterator implements Iterator<Product> {
+        private final MappingIterator<Product> rows;
+        private final Map<Integer, String> parseErrors = new HashMap<>();
+        private int index;
+
+        private RowIterator(MappingIterator<Product> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return rows.hasNextValue();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Product next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return rows.nextValue();
+            } catch (JsonMappingException e) {
+                parseErrors.put(index, e.getOriginalMessage());
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                index++;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,19 +1,62 @@
 package com.example.productservice.service;
 
+import com.example.productservice.cache.ProductCache;
+import com.example.productservice.cache.SingleFlight;
+import com.example.productservice.datasource.ReadRouting;
+import com.example.productservice.event.ProductChangedEvent;
 import com.example.productservice.exception.ProductAlreadyExistsException;
+import com.example.productservice.exception.PreconditionFailedException;
 import com.example.productservice.exception.ProductNotFoundException;
+import com.example.productservice.index.ProductPriceIndex;
+import com.example.productservice.index.ProductSearchIndex;
+import com.example.productservice.model.CatalogRevision;
+import com.example.productservice.model.CatalogVersion;
+import com.example.productservice.model.CursorPage;
 import com.example.productservice.model.Product;
+import com.example.productservice.model.ProductRevision;
 import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.repository.ProductSpecifications;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static com.example.productservice.event.ProductChangedEvent.versionOf;
 
 @Service
 @Transactional
@@ -23,9 +66,46 @@ public class ProductService {
     
     private final ProductRepository productRepository;
     
+    private final EntityManager entityManager;
+    
+    private final ProductCache productCache;
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    private final ProductSearchIndex searchIndex;
+    
+    private final ProductPriceIndex priceIndex;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private final int updateMaxAttempts;
+    
+    // Concurrent identical reads share one query, e.g. a hot product right after an invalidation
+    private final SingleFlight<Long, Product> productLoads;
+    
+    private final SingleFlight<String, List<Product>> searches;
+    
+    // Committed changes seen so far, local and remote; tells whether knownCatalogRevision is current
+    private final AtomicLong catalogChanges = new AtomicLong();
+    
+    private volatile KnownCatalogRevision knownCatalogRevision;
+    
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, EntityManager entityManager,
+                          ProductCache productCache, ApplicationEventPublisher eventPublisher,
+                          ProductSearchIndex searchIndex, ProductPriceIndex priceIndex,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                          @Value("${product.update.max-attempts:3}") int updateMaxAttempts) {
         this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.productCache = productCache;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.priceIndex = priceIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.updateMaxAttempts = updateMaxAttempts;
+        this.productLoads = new SingleFlight<>("product-by-id", meterRegistry);
+        this.searches = new SingleFlight<>("search", meterRegistry);
     }
     
     @Transactional(readOnly = true)
@@ -34,6 +114,57 @@ public class ProductService {
         return productRepository.findAll(pageable);
     }
     
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAllProductFields(Set<String> fields, Pageable pageable) {
+        logger.debug("Fetching fields {} of all products with pagination: {}", fields, pageable);
+        List<Map<String, Object>> content = productRepository.findFields(
+                fields, null, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable, productRepository::count);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<Product> getProductsAfter(String after, int size, String sortBy, boolean descending) {
+        logger.debug("Fetching products after cursor: {}, size: {}, sortBy: {}", after, size, sortBy);
+        ProductCursor.checkSortable(sortBy);
+        ProductCursor cursor = after != null ? ProductCursor.decode(after, sortBy, descending) : null;
+        
+        // One extra row tells us whether another page exists without a count query
+        List<Product> rows = productRepository.findPageAfter(sortBy, descending,
+                cursor != null ? cursor.getSortValue() : null,
+                cursor != null ? cursor.getId() : null,
+                size + 1);
+        return toCursorPage(rows, size, last -> ProductCursor.after(last, sortBy, descending));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getProductFieldsAfter(String after, int size, String sortBy,
+                                                                 boolean descending, Set<String> fields) {
+        logger.debug("Fetching fields {} of products after cursor: {}, size: {}, sortBy: {}", fields, after, size, sortBy);
+        ProductCursor.checkSortable(sortBy);
+        ProductCursor cursor = after != null ? ProductCursor.decode(after, sortBy, descending) : null;
+        
+        // The sort key is needed for the next cursor even when it was not asked for
+        Set<String> selected = new LinkedHashSet<>(fields);
+        selected.add(sortBy);
+        List<Map<String, Object>> rows = productRepository.findFieldsAfter(selected, sortBy, descending,
+                cursor != null ? cursor.getSortValue() : null,
+                cursor != null ? cursor.getId() : null,
+                size + 1);
+        CursorPage<Map<String, Object>> page = toCursorPage(rows, size,
+                last -> ProductCursor.after((Long) last.get("id"), last.get(sortBy), sortBy, descending));
+        if (!fields.contains(sortBy)) {
+            page.getContent().forEach(row -> row.remove(sortBy));
+        }
+        return page;
+    }
+    
+    private static <T> CursorPage<T> toCursorPage(List<T> rows, int size, Function<T, ProductCursor> cursorAfter) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        String nextCursor = hasNext ? cursorAfter.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(content, size, nextCursor);
+    }
+    
     @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         logger.debug("Fetching all products");
@@ -41,63 +172,296 @@ public class ProductService {
     }
     
     @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllProductFields(Set<String> fields) {
+        logger.debug("Fetching fields {} of all products", fields);
+        return productRepository.findFields(fields, null, Sort.by("id"), 0, 0);
+    }
+    
+    @Transactional(readOnly = true)
+    public long streamAllProducts(Consumer<Product> consumer) {
+        logger.debug("Streaming all products");
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamAll()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                consumer.accept(product);
+                // Keep the persistence context flat regardless of table size
+                entityManager.detach(product);
+                count++;
+            }
+        }
+        logger.debug("Streamed {} products", count);
+        return count;
+    }
+    
+    // SUPPORTS: cache hits must not pay for opening a transaction and borrowing a connection
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Product getProductById(Long id) {
         logger.debug("Fetching product with id: {}", id);
+        return productCache.get(id, missing -> ReadRouting.isPrimaryRequired()
+                // A read fenced to the primary must not join a leader that may be reading a lagging replica
+                ? loadProduct(missing)
+                : productLoads.execute(missing, this::loadProduct));
+    }
+    
+    private Product loadProduct(Long id) {
         return productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException(id));
     }
     
-    public Product createProduct(Product product) {
-        logger.info("Creating new product: {}", product.getName());
-        
-        if (productRepository.existsByNameIgnoreCase(product.getName())) {
-            throw new ProductAlreadyExistsException(product.getName());
+    // Validators for conditional requests, from the cache or a two-column query; empty if unknown
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<ProductRevision> findProductRevision(Long id) {
+        Product cached = productCache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(ProductRevision.of(cached));
+        }
+        return productRepository.findRevisionById(id);
+    }
+    
+    // Always read from the database: what If-None-Match on a collection is answered from
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CatalogRevision getCatalogRevision() {
+        long changes = catalogChanges.get();
+        CatalogRevision revision = productRepository.findCatalogRevision();
+        knownCatalogRevision = new KnownCatalogRevision(changes, revision);
+        return revision;
+    }
+    
+    /*
+     * For unconditional reads: reuses the last revision read until a local or remote
+     * change is seen. A tag that is stale this way only costs the client a full
+     * response on its next revalidation, never a wrong 304.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CatalogRevision getLastKnownCatalogRevision() {
+        KnownCatalogRevision known = knownCatalogRevision;
+        if (known != null && known.changes == catalogChanges.get()) {
+            return known.revision;
         }
+        return getCatalogRevision();
+    }
+    
+    // Only bumps a counter; must not join the transaction that has just committed
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        catalogChanges.incrementAndGet();
+    }
+    
+    @Transactional(readOnly = true)
+    public CatalogVersion getCatalogVersion() {
+        Object[] row = productRepository.findCatalogVersion().get(0);
+        return new CatalogVersion(((Number) row[0]).longValue(), versionOf((LocalDateTime) row[1]));
+    }
+    
+    public Product createProduct(Product product) {
+        logger.debug("Creating new product: {}", product.getName());
         
-        Product savedProduct = productRepository.save(product);
+        // Duplicate names are rejected by the unique name key at flush, not by a query up front
+        Product savedProduct = saveAndFlush(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(savedProduct));
         logger.info("Product created successfully with id: {}", savedProduct.getId());
         return savedProduct;
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Product updateProduct(Long id, Product updatedProduct) {
-        logger.info("Updating product with id: {}", id);
-        
-        Product existingProduct = getProductById(id);
-        
-        if (!existingProduct.getName().equalsIgnoreCase(updatedProduct.getName()) &&
-            productRepository.existsByNameIgnoreCase(updatedProduct.getName())) {
-            throw new ProductAlreadyExistsException(updatedProduct.getName());
+        return updateProduct(id, updatedProduct, null);
+    }
+    
+    // Each attempt runs in its own transaction, so a version conflict can be retried against a fresh read
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Product updateProduct(Long id, Product updatedProduct, Predicate<Product> precondition) {
+        logger.debug("Updating product with id: {}", id);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> applyUpdate(id, updatedProduct, precondition));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= updateMaxAttempts) {
+                    throw e;
+                }
+                logger.debug("Product {} changed concurrently, retrying update (attempt {})", id, attempt + 1);
+            }
+        }
+    }
+    
+    private Product applyUpdate(Long id, Product updatedProduct, Predicate<Product> precondition) {
+        // Load a managed copy rather than the shared cached instance we are about to mutate
+        Product existingProduct = loadProduct(id);
+        if (precondition != null && !precondition.test(existingProduct)) {
+            throw new PreconditionFailedException(id);
         }
         
         existingProduct.setName(updatedProduct.getName());
         existingProduct.setDescription(updatedProduct.getDescription());
         existingProduct.setPrice(updatedProduct.getPrice());
         
-        Product savedProduct = productRepository.save(existingProduct);
+        Product savedProduct = saveAndFlush(existingProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(savedProduct));
         logger.info("Product updated successfully: {}", savedProduct.getId());
         return savedProduct;
     }
     
+    // Flushing surfaces unique-key and version conflicts here rather than at commit
+    private Product saveAndFlush(Product product) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException e) {
+            if (isNameConflict(e)) {
+                throw new ProductAlreadyExistsException(product.getName());
+            }
+            throw e;
+        }
+    }
+    
+    // Drivers report the constraint differently, so look for its name anywhere in the cause chain
+    private static boolean isNameConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(Product.NAME_KEY_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     public void deleteProduct(Long id) {
-        logger.info("Deleting product with id: {}", id);
+        logger.debug("Deleting product with id: {}", id);
         
         if (!productRepository.existsById(id)) {
             throw new ProductNotFoundException(id);
         }
         
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
         logger.info("Product deleted successfully: {}", id);
     }
     
-    @Transactional(readOnly = true)
+    // SUPPORTS: callers waiting on an identical in-flight search must not hold a connection meanwhile
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<Product> searchProducts(String keyword) {
         logger.debug("Searching products with keyword: {}", keyword);
-        return productRepository.searchByKeyword(keyword);
+        Function<String, List<Product>> search = key -> Collections.unmodifiableList(
+                searchIndex.isReady() ? loadInOrder(searchIndex.search(key))
+                        : productRepository.searchByKeyword(key));
+        // Matching is case-insensitive, so differently cased keywords can share a search; the list is shared too.
+        // Reads fenced to the primary run on their own, as for getProductById.
+        String key = keyword.toLowerCase(Locale.ROOT);
+        return ReadRouting.isPrimaryRequired() ? search.apply(key) : searches.execute(key, search);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchProductFields(String keyword, Set<String> fields) {
+        logger.debug("Searching fields {} of products with keyword: {}", fields, keyword);
+        if (!searchIndex.isReady()) {
+            return productRepository.findFields(fields, ProductSpecifications.keywordMatches(keyword),
+                    Sort.by("id"), 0, 0);
+        }
+        return loadFieldsInOrder(searchIndex.search(keyword), fields);
     }
     
     @Transactional(readOnly = true)
     public List<Product> findProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        logger.debug("Finding products in price range: {} - {}", minPrice, maxPrice);
-        return productRepository.findByPriceBetween(minPrice, maxPrice);
+        return findProductsByPriceRange(minPrice, maxPrice, false, null);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Product> findProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice,
+                                                  boolean descending, Integer limit) {
+        logger.debug("Finding products in price range: {} - {}, descending: {}, limit: {}",
+                minPrice, maxPrice, descending, limit);
+        if (priceIndex.isReady()) {
+            return loadInOrder(priceIndex.findIdsInRange(minPrice, maxPrice, descending, limit != null ? limit : 0));
+        }
+        Sort sort = Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, "price", "id");
+        return limit != null
+                ? productRepository.findByPriceBetween(minPrice, maxPrice, PageRequest.of(0, limit, sort))
+                : productRepository.findByPriceBetween(minPrice, maxPrice, sort);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findProductFieldsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice,
+                                                                   boolean descending, Integer limit,
+                                                                   Set<String> fields) {
+        logger.debug("Finding fields {} of products in price range: {} - {}, descending: {}, limit: {}",
+                fields, minPrice, maxPrice, descending, limit);
+        if (priceIndex.isReady()) {
+            return loadFieldsInOrder(priceIndex.findIdsInRange(minPrice, maxPrice, descending, limit != null ? limit : 0),
+                    fields);
+        }
+        Sort sort = Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, "price", "id");
+        return productRepository.findFields(fields, ProductSpecifications.priceBetween(minPrice, maxPrice),
+                sort, 0, limit != null ? limit : 0);
+    }
+    
+    // Like loadInOrder, but misses are projected in SQL and never enter the cache or persistence context
+    private List<Map<String, Object>> loadFieldsInOrder(List<Long> ids, Set<String> fields) {
+        Map<Long, Map<String, Object>> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Product cached = productCache.getIfPresent(id);
+            if (cached != null) {
+                found.put(id, ProductFields.project(cached, fields));
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Map<String, Object> row : productRepository.findFields(
+                    fields, ProductSpecifications.idIn(missing), Sort.unsorted(), 0, 0)) {
+                found.put((Long) row.get("id"), row);
+            }
+        }
+        
+        List<Map<String, Object>> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Map<String, Object> row = found.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+    
+    // Resolves ids through the product cache, fetching all misses in one query, preserving id order
+    private List<Product> loadInOrder(List<Long> ids) {
+        Map<Long, Product> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Product cached = productCache.getIfPresent(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Product product : productRepository.findAllById(missing)) {
+                productCache.put(product);
+                found.put(product.getId(), product);
+            }
+        }
+        
+        List<Product> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = found.get(id);
+            if (product != null) {
+                ordered.add(product);
+            }
+        }
+        return ordered;
+    }
+    
+    private static final class KnownCatalogRevision {
+        
+        private final long changes;
+        private final CatalogRevision revision;
+        
+        private KnownCatalogRevision(long changes, CatalogRevision revision) {
+            this.changes = changes;
+            this.revision = revision;
+        }
     }
-}
\ No newline at end of file
+}
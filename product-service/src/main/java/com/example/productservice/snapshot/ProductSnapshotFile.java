@@ -0,0 +1,194 @@
+package com.example.productservice.snapshot;
+
+import com.example.productservice.model.CatalogVersion;
+import com.example.productservice.model.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static com.example.productservice.event.ProductChangedEvent.versionOf;
+
+/**
+ * Binary catalog snapshot. A fixed header (magic, format, catalog version,
+ * record count) is followed by one record per product in id order:
+ * <pre>
+ * id, version, createdAt, updatedAt (micros), price unscaled, price scale, name, description
+ * </pre>
+ * Longs are big-endian, strings are an int byte length (-1 for null) plus
+ * UTF-8. Files are written to a temporary sibling and moved into place, so a
+ * reader never sees a partial snapshot; reads map the file instead of copying it.
+ */
+public final class ProductSnapshotFile {
+    
+    private static final int MAGIC = 0x50534E50;
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8;
+    private static final long RECORD_COUNT_OFFSET = HEADER_SIZE - 8;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    
+    private ProductSnapshotFile() {
+    }
+    
+    public static Writer create(Path file, CatalogVersion catalogVersion) throws IOException {
+        return new Writer(file, catalogVersion);
+    }
+    
+    public static Snapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + file + " has an unusable size: " + size);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                throw new IOException("Not a product snapshot, or an unsupported format: " + file);
+            }
+            CatalogVersion catalogVersion = new CatalogVersion(buffer.getLong(), buffer.getLong());
+            long recordCount = buffer.getLong();
+            return new Snapshot(buffer, catalogVersion, recordCount);
+        }
+    }
+    
+    static LocalDateTime toLocalDateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) TimeUnit.MICROSECONDS.toNanos(Math.floorMod(micros, 1_000_000L)), ZoneOffset.UTC);
+    }
+    
+    public static final class Writer implements Closeable {
+        
+        private final Path file;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final DataOutputStream out;
+        private long recordCount;
+        private boolean committed;
+        
+        private Writer(Path file, CatalogVersion catalogVersion) throws IOException {
+            this.file = file;
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            this.temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            this.channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeLong(catalogVersion.getCount());
+            out.writeLong(catalogVersion.getLastUpdated());
+            // Patched in commit() once the number of records is known
+            out.writeLong(0L);
+        }
+        
+        public void append(Product product) throws IOException {
+            out.writeLong(product.getId());
+            out.writeLong(product.getVersion() != null ? product.getVersion() : NULL_LONG);
+            out.writeLong(product.getCreatedAt() != null ? versionOf(product.getCreatedAt()) : NULL_LONG);
+            out.writeLong(product.getUpdatedAt() != null ? versionOf(product.getUpdatedAt()) : NULL_LONG);
+            BigDecimal price = product.getPrice();
+            out.writeLong(price.unscaledValue().longValueExact());
+            out.writeByte(price.scale());
+            writeString(product.getName());
+            writeString(product.getDescription());
+            recordCount++;
+        }
+        
+        public long commit() throws IOException {
+            out.flush();
+            ByteBuffer count = ByteBuffer.allocate(8).putLong(0, recordCount);
+            channel.write(count, RECORD_COUNT_OFFSET);
+            channel.force(false);
+            out.close();
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            return recordCount;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+        
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+    
+    public static final class Snapshot {
+        
+        private final ByteBuffer buffer;
+        private final CatalogVersion catalogVersion;
+        private final long recordCount;
+        
+        private Snapshot(ByteBuffer buffer, CatalogVersion catalogVersion, long recordCount) {
+            this.buffer = buffer;
+            this.catalogVersion = catalogVersion;
+            this.recordCount = recordCount;
+        }
+        
+        // Decodes records straight from the mapping; each call starts from the first record
+        public void forEach(Consumer<Product> consumer) {
+            ByteBuffer records = buffer.duplicate();
+            // Through Buffer, so class files built on a newer JDK still link on Java 8
+            ((Buffer) records).position(HEADER_SIZE);
+            for (long i = 0; i < recordCount; i++) {
+                consumer.accept(readRecord(records));
+            }
+        }
+        
+        // Getters
+        public CatalogVersion getCatalogVersion() { return catalogVersion; }
+        public long getRecordCount() { return recordCount; }
+        
+        private static Product readRecord(ByteBuffer records) {
+            long id = records.getLong();
+            long version = records.getLong();
+            long createdAt = records.getLong();
+            long updatedAt = records.getLong();
+            BigDecimal price = new BigDecimal(BigInteger.valueOf(records.getLong()), records.get());
+            Product product = new Product(readString(records), null, price);
+            product.setDescription(readString(records));
+            product.setId(id);
+            product.setVersion(version != NULL_LONG ? version : null);
+            product.setCreatedAt(createdAt != NULL_LONG ? toLocalDateTime(createdAt) : null);
+            product.setUpdatedAt(updatedAt != NULL_LONG ? toLocalDateTime(updatedAt) : null);
+            return product;
+        }
+        
+        private static String readString(ByteBuffer records) {
+            int length = records.getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            records.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
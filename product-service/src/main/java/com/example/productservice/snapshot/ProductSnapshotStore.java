@@ -0,0 +1,180 @@
+package com.example.productservice.snapshot;
+
+import com.example.productservice.cache.ProductCache;
+import com.example.productservice.model.CatalogVersion;
+import com.example.productservice.model.Product;
+import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a {@link ProductSnapshotFile} of the catalog next to the database and
+ * replays it at startup, so a new or restarted pod warms its indexes and cache
+ * from one sequential read of a mapped file instead of hydrating every row.
+ * Whatever changed after the snapshot was taken is caught up from the database.
+ */
+@Component
+@ConditionalOnProperty(name = "product.snapshot.enabled", havingValue = "true")
+public class ProductSnapshotStore implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProductSnapshotStore.class);
+    
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final Path file;
+    private final int cacheWarmLimit;
+    private final ScheduledExecutorService scheduler;
+    
+    private volatile CatalogVersion lastWritten;
+    
+    @Autowired
+    public ProductSnapshotStore(ProductService productService, ProductRepository productRepository,
+                                ProductCache productCache,
+                                @Value("${product.snapshot.file}") String file,
+                                @Value("${product.snapshot.interval:5m}") Duration interval,
+                                @Value("${product.snapshot.cache-warm-limit:10000}") int cacheWarmLimit) {
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.file = Paths.get(file);
+        this.cacheWarmLimit = cacheWarmLimit;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::writeQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Feeds every product of the snapshot, then the changes since, to the sink;
+     * ids deleted since go to remove. Returns the number of products replayed,
+     * or -1 if there is no usable snapshot and the caller must read the table.
+     */
+    public long replay(Consumer<Product> sink, Consumer<Long> remove) {
+        if (!Files.isRegularFile(file)) {
+            logger.info("No catalog snapshot at {}, loading from the database", file);
+            return -1;
+        }
+        long start = System.nanoTime();
+        ProductSnapshotFile.Snapshot snapshot;
+        try {
+            snapshot = ProductSnapshotFile.read(file);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable catalog snapshot {}: {}", file, e.getMessage());
+            return -1;
+        }
+        
+        long[] ids = new long[Math.toIntExact(snapshot.getRecordCount())];
+        int[] replayed = {0};
+        snapshot.forEach(product -> {
+            sink.accept(product);
+            if (replayed[0] < cacheWarmLimit) {
+                productCache.put(product);
+            }
+            ids[replayed[0]++] = product.getId();
+        });
+        
+        CatalogVersion current = productService.getCatalogVersion();
+        CatalogVersion taken = snapshot.getCatalogVersion();
+        if (current.getCount() != taken.getCount() || current.getLastUpdated() != taken.getLastUpdated()) {
+            catchUp(taken, ids, sink, remove);
+        }
+        lastWritten = taken;
+        logger.info("Replayed {} products from snapshot {} in {} ms",
+                ids.length, file, (System.nanoTime() - start) / 1_000_000);
+        return ids.length;
+    }
+    
+    // Writes a new snapshot unless the catalog is unchanged since the last one
+    public synchronized long write() throws IOException {
+        CatalogVersion version = productService.getCatalogVersion();
+        CatalogVersion previous = lastWritten;
+        if (previous != null && previous.getCount() == version.getCount()
+                && previous.getLastUpdated() == version.getLastUpdated()) {
+            logger.debug("Catalog unchanged since the last snapshot, skipping");
+            return 0;
+        }
+        long start = System.nanoTime();
+        // Version first: rows changed during the scan are newer than it and get caught up on replay
+        try (ProductSnapshotFile.Writer writer = ProductSnapshotFile.create(file, version)) {
+            productService.streamAllProducts(product -> {
+                try {
+                    writer.append(product);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            long written = writer.commit();
+            lastWritten = version;
+            logger.info("Wrote snapshot of {} products to {} ({} bytes) in {} ms",
+                    written, file, Files.size(file), (System.nanoTime() - start) / 1_000_000);
+            return written;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        // Leave the freshest possible snapshot for the next start
+        writeQuietly();
+    }
+    
+    private void catchUp(CatalogVersion taken, long[] snapshotIds, Consumer<Product> sink, Consumer<Long> remove) {
+        List<Product> changed = productRepository.findByUpdatedAtGreaterThanEqual(
+                ProductSnapshotFile.toLocalDateTime(taken.getLastUpdated()));
+        for (Product product : changed) {
+            sink.accept(product);
+            productCache.put(product);
+        }
+        
+        // Both sides sorted by id: anything only in the snapshot was deleted since
+        long[] expected = snapshotIds.clone();
+        Arrays.sort(expected);
+        List<Long> present = productRepository.findAllIdsOrderById();
+        int deleted = 0;
+        int j = 0;
+        for (long id : expected) {
+            while (j < present.size() && present.get(j) < id) {
+                j++;
+            }
+            if (j == present.size() || present.get(j) != id) {
+                remove.accept(id);
+                productCache.invalidate(id);
+                deleted++;
+            }
+        }
+        logger.info("Caught up {} changed and {} deleted products since the snapshot", changed.size(), deleted);
+    }
+    
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write catalog snapshot to {}", file, e);
+        }
+    }
+}
\ No newline at end of file
@@ -1,7 +1,7 @@
 -- Sample data for testing
-INSERT INTO products (name, description, price, created_at, updated_at) VALUES 
-('Gaming Laptop', 'High-performance gaming laptop with RTX 4070', 1299.99, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Smartphone', 'Latest flagship smartphone with 5G connectivity', 899.99, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Wireless Headphones', 'Premium noise-cancelling wireless headphones', 299.99, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Mechanical Keyboard', 'RGB mechanical gaming keyboard', 149.99, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('4K Monitor', '27-inch 4K UHD monitor for professionals', 449.99, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
\ No newline at end of file
+INSERT INTO products (id, name, name_key, description, price, created_at, updated_at, version) VALUES 
+(NEXT VALUE FOR product_seq, 'Gaming Laptop', 'gaming laptop', 'High-performance gaming laptop with RTX 4070', 1299.99, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),
+(NEXT VALUE FOR product_seq, 'Smartphone', 'smartphone', 'Latest flagship smartphone with 5G connectivity', 899.99, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),
+(NEXT VALUE FOR product_seq, 'Wireless Headphones', 'wireless headphones', 'Premium noise-cancelling wireless headphones', 299.99, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),
+(NEXT VALUE FOR product_seq, 'Mechanical Keyboard', 'mechanical keyboard', 'RGB mechanical gaming keyboard', 149.99, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0),
+(NEXT VALUE FOR product_seq, '4K Monitor', '4k monitor', '27-inch 4K UHD monitor for professionals', 449.99, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0);
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.event.ProductChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "product.cache.bus.type=http",
+    "product.cache.bus.http.peers=localhost",
+    "product.cache.bus.http.shared-secret=test-secret"
+})
+class CacheInvalidationEndpointTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void receive_ShouldOnlyBeServedOnTheManagementPortWithTheSecret() {
+        ProductInvalidation invalidation = new ProductInvalidation("peer", ProductChangedEvent.Type.UPDATED, 1L, 1L);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpInvalidationBus.SECRET_HEADER, "test-secret");
+
+        assertNotEquals(serverPort, managementPort);
+        assertEquals(HttpStatus.ACCEPTED, post(managementPort, new HttpEntity<>(invalidation, headers)));
+        assertEquals(HttpStatus.FORBIDDEN, post(managementPort, new HttpEntity<>(invalidation)));
+        assertEquals(HttpStatus.NOT_FOUND, post(serverPort, new HttpEntity<>(invalidation, headers)));
+    }
+
+    private HttpStatus post(int port, HttpEntity<ProductInvalidation> request) {
+        return restTemplate.postForEntity("http://localhost:" + port + HttpInvalidationBus.RECEIVE_PATH,
+                request, Void.class).getStatusCode();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private ProductCache cache;
+
+    private Product oldVersion;
+
+    private Product newVersion;
+
+    @BeforeEach
+    void setUp() {
+        cache = newCache();
+        oldVersion = product("Old Name", 1L);
+        newVersion = product("New Name", 2L);
+    }
+
+    @Test
+    void put_AfterNewerInvalidation_ShouldNotCacheStaleLoad() {
+        cache.invalidate(1L, ProductChangedEvent.versionOf(newVersion));
+
+        cache.put(oldVersion);
+
+        assertNull(cache.getIfPresent(1L));
+    }
+
+    @Test
+    void invalidate_WithOlderVersion_ShouldKeepNewerEntry() {
+        cache.put(newVersion);
+
+        cache.invalidate(1L, ProductChangedEvent.versionOf(oldVersion));
+
+        assertSame(newVersion, cache.getIfPresent(1L));
+    }
+
+    @Test
+    void put_WithHigherVersionButOlderTimestamp_ShouldReplaceEntry() {
+        // A write from a replica whose clock lags still carries the newer database version
+        oldVersion.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 5));
+        newVersion.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        cache.put(oldVersion);
+
+        cache.invalidate(1L, ProductChangedEvent.versionOf(newVersion));
+        cache.put(newVersion);
+
+        assertSame(newVersion, cache.getIfPresent(1L));
+    }
+
+    @Test
+    void put_AfterDelete_ShouldNeverCacheProduct() {
+        cache.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        cache.put(newVersion);
+
+        assertNull(cache.getIfPresent(1L));
+    }
+
+    @Test
+    void loopbackBus_ShouldInvalidateOtherReplicaButNotResurrectOldEntry() {
+        LoopbackInvalidationBus bus = new LoopbackInvalidationBus();
+        ProductCache remoteCache = newCache();
+        InvalidationBroadcaster local = new InvalidationBroadcaster(bus, event -> { }, "pod-a");
+        new InvalidationBroadcaster(bus, remoteEventsInto(remoteCache), "pod-b");
+        remoteCache.put(oldVersion);
+
+        local.onProductChanged(ProductChangedEvent.updated(newVersion));
+        remoteCache.put(oldVersion);
+
+        assertNull(remoteCache.getIfPresent(1L));
+        remoteCache.put(newVersion);
+        assertSame(newVersion, remoteCache.getIfPresent(1L));
+    }
+
+    private static ApplicationEventPublisher remoteEventsInto(ProductCache target) {
+        return event -> target.onProductChanged((ProductChangedEvent) event);
+    }
+
+    private static ProductCache newCache() {
+        return new ProductCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    private static Product product(String name, long version) {
+        Product product = new Product(name, "Description", new BigDecimal("10.00"));
+        product.setId(1L);
+        product.setVersion(version);
+        return product;
+    }
+}
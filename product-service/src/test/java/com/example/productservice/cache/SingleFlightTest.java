@@ -0,0 +1,126 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.exception.ProductNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SingleFlight<Long, String> singleFlight;
+
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("product-by-id", meterRegistry);
+        callers = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void execute_WithConcurrentCallsForSameKey_ShouldRunLoaderOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<String> leader = callers.submit(() -> singleFlight.execute(1L, id -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "product " + id;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(callers.submit(() -> singleFlight.execute(1L, id -> {
+                loads.incrementAndGet();
+                return "unexpected";
+            })));
+        }
+        waitForCoalesced(3);
+        release.countDown();
+
+        assertEquals("product 1", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("product 1", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("executed"));
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void execute_WhenLoaderFails_ShouldRethrowToEveryWaitingCaller() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = callers.submit(() -> singleFlight.execute(7L, id -> {
+            loading.countDown();
+            await(release);
+            throw new ProductNotFoundException(id);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<String> follower = callers.submit(() -> singleFlight.execute(7L, id -> "unexpected"));
+        waitForCoalesced(1);
+        release.countDown();
+
+        for (Future<String> call : Arrays.asList(leader, follower)) {
+            Exception e = assertThrows(Exception.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof ProductNotFoundException);
+        }
+    }
+
+    @Test
+    void execute_AfterCompletion_ShouldLoadAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute(1L, id -> "v" + loads.incrementAndGet());
+        String second = singleFlight.execute(1L, id -> "v" + loads.incrementAndGet());
+
+        assertEquals("v2", second);
+        assertEquals(2.0, count("executed"));
+        assertEquals(0.0, count("coalesced"));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("products.singleflight.calls").tag("outcome", outcome).counter().count();
+    }
+
+    private void waitForCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("coalesced") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, count("coalesced"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
@@ -1,39 +1,90 @@
 package com.example.productservice.controller;
 
+import com.example.productservice.cache.ProductJsonCache;
+import com.example.productservice.config.WireFormatConfig;
+import com.example.productservice.exception.PreconditionFailedException;
 import com.example.productservice.exception.ProductAlreadyExistsException;
 import com.example.productservice.exception.ProductNotFoundException;
+import com.example.productservice.model.BatchItemResult;
+import com.example.productservice.model.CatalogRevision;
+import com.example.productservice.model.CursorPage;
 import com.example.productservice.model.Product;
+import com.example.productservice.model.ProductRevision;
+import com.example.productservice.perf.AccessLog;
+import com.example.productservice.perf.RequestProfiler;
+import com.example.productservice.service.ProductBatchService;
+import com.example.productservice.service.ProductImportService;
 import com.example.productservice.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProductController.class)
+@Import({WireFormatConfig.class, ProductJsonCache.class})
 class ProductControllerTest {
 
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductBatchService productBatchService;
+
+    @MockBean
+    private ProductImportService productImportService;
+
+    @MockBean
+    private RequestProfiler requestProfiler;
+
+    @MockBean
+    private AccessLog accessLog;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -43,6 +94,8 @@ class ProductControllerTest {
     void setUp() {
         testProduct = new Product("Test Product", "Test Description", new BigDecimal("99.99"));
         testProduct.setId(1L);
+        when(productService.getCatalogRevision()).thenReturn(new CatalogRevision(1L, 1L, 0L));
+        when(productService.getLastKnownCatalogRevision()).thenReturn(new CatalogRevision(1L, 1L, 0L));
     }
 
     @Test
@@ -75,6 +128,54 @@ class ProductControllerTest {
         verify(productService).getAllProducts(any(PageRequest.class));
     }
 
+    @Test
+    void getAllProducts_WithCursor_ShouldReturnCursorPage() throws Exception {
+        CursorPage<Product> cursorPage = new CursorPage<>(Arrays.asList(testProduct), 1, "next-token");
+        when(productService.getProductsAfter("token", 1, "price", true)).thenReturn(cursorPage);
+
+        mockMvc.perform(get("/api/v1/products")
+                .param("after", "token")
+                .param("size", "1")
+                .param("sortBy", "price")
+                .param("sortDir", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(productService).getProductsAfter("token", 1, "price", true);
+        verify(productService, never()).getAllProducts(any(PageRequest.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportProducts_WithNdjsonAccept_ShouldStreamOneProductPerLine() throws Exception {
+        Product secondProduct = new Product("Second Product", "Second Description", new BigDecimal("10.00"));
+        secondProduct.setId(2L);
+        when(productService.streamAllProducts(any())).thenAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(0);
+            consumer.accept(testProduct);
+            consumer.accept(secondProduct);
+            return 2L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/products")
+                .accept(ProductController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProductController.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Test Product", objectMapper.readValue(lines[0], Product.class).getName());
+        assertEquals("Second Product", objectMapper.readValue(lines[1], Product.class).getName());
+        verify(productService, never()).getAllProducts();
+    }
+
     @Test
     void getProductById_WhenProductExists_ShouldReturnProduct() throws Exception {
         when(productService.getProductById(1L)).thenReturn(testProduct);
@@ -88,6 +189,82 @@ class ProductControllerTest {
         verify(productService).getProductById(1L);
     }
 
+    @Test
+    void getProductById_ShouldRecordRequestProfileForOperation() throws Exception {
+        when(productService.getProductById(1L)).thenReturn(testProduct);
+
+        mockMvc.perform(get("/api/v1/products/1"))
+                .andExpect(status().isOk());
+
+        verify(requestProfiler).record(argThat(profile ->
+                profile.getOperation().equals("getProductById") && profile.getStatus() == 200));
+    }
+
+    @Test
+    void getProductById_WithCurrentETag_ShouldReturnNotModifiedWithoutLoadingProduct() throws Exception {
+        testProduct.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        testProduct.setVersion(3L);
+        when(productService.findProductRevision(1L)).thenReturn(Optional.of(ProductRevision.of(testProduct)));
+
+        mockMvc.perform(get("/api/v1/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, ProductETags.of(testProduct)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ProductETags.of(testProduct)));
+
+        verify(productService, never()).getProductById(1L);
+    }
+
+    @Test
+    void getProductById_WithStaleETag_ShouldReturnProductAndNewETag() throws Exception {
+        testProduct.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        testProduct.setVersion(3L);
+        when(productService.findProductRevision(1L)).thenReturn(Optional.of(ProductRevision.of(testProduct)));
+        when(productService.getProductById(1L)).thenReturn(testProduct);
+
+        mockMvc.perform(get("/api/v1/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"p1-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ProductETags.of(testProduct)))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void getAllProducts_WithCurrentCatalogETag_ShouldReturnNotModified() throws Exception {
+        mockMvc.perform(get("/api/v1/products")
+                .header(HttpHeaders.IF_NONE_MATCH, ProductETags.of(new CatalogRevision(1L, 1L, 0L))))
+                .andExpect(status().isNotModified());
+
+        verify(productService).getCatalogRevision();
+        verify(productService, never()).getAllProducts();
+    }
+
+    @Test
+    void getAllProducts_WithoutIfNoneMatch_ShouldNotQueryCurrentCatalogRevision() throws Exception {
+        when(productService.getAllProducts()).thenReturn(Arrays.asList(testProduct));
+
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ProductETags.of(new CatalogRevision(1L, 1L, 0L))));
+
+        verify(productService).getLastKnownCatalogRevision();
+        verify(productService, never()).getCatalogRevision();
+    }
+
+    @Test
+    void getProductById_WithSmileAccept_ShouldReturnBinaryEncoding() throws Exception {
+        when(productService.getProductById(1L)).thenReturn(testProduct);
+
+        byte[] body = mockMvc.perform(get("/api/v1/products/1")
+                .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Product decoded = new ObjectMapper(new SmileFactory()).findAndRegisterModules().readValue(body, Product.class);
+        assertEquals("Test Product", decoded.getName());
+    }
+
     @Test
     void getProductById_WhenProductNotExists_ShouldReturnNotFound() throws Exception {
         when(productService.getProductById(1L)).thenThrow(new ProductNotFoundException(1L));
@@ -115,6 +292,15 @@ class ProductControllerTest {
         verify(productService).createProduct(any(Product.class));
     }
 
+    @Test
+    void getProductById_WithNonNumericId_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid Request Parameter"));
+
+        verifyNoInteractions(productService);
+    }
+
     @Test
     void createProduct_WithInvalidData_ShouldReturnBadRequest() throws Exception {
         Product invalidProduct = new Product("", "Description", new BigDecimal("-10.00"));
@@ -161,6 +347,20 @@ class ProductControllerTest {
         verify(productService).updateProduct(eq(1L), any(Product.class));
     }
 
+    @Test
+    void updateProduct_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        when(productService.updateProduct(eq(1L), any(Product.class), any()))
+                .thenThrow(new PreconditionFailedException(1L));
+
+        mockMvc.perform(put("/api/v1/products/1")
+                .header(HttpHeaders.IF_MATCH, "\"p1-0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testProduct)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(productService, never()).updateProduct(eq(1L), any(Product.class));
+    }
+
     @Test
     void updateProduct_WhenProductNotExists_ShouldReturnNotFound() throws Exception {
         Product updatedProduct = new Product("Updated Product", "Updated Description", new BigDecimal("199.99"));
@@ -211,10 +411,39 @@ class ProductControllerTest {
         verify(productService).searchProducts("test");
     }
 
+    @Test
+    void searchProducts_WithFields_ShouldReturnOnlySelectedFields() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("name", "Test Product");
+        Set<String> selected = new LinkedHashSet<>(Arrays.asList("id", "name"));
+        when(productService.searchProductFields("test", selected))
+                .thenReturn(Collections.singletonList(row));
+
+        mockMvc.perform(get("/api/v1/products/search")
+                .param("keyword", "test")
+                .param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Test Product"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+
+        verify(productService, never()).searchProducts(anyString());
+    }
+
+    @Test
+    void getAllProducts_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products")
+                .param("fields", "id,secret"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productService);
+    }
+
     @Test
     void findByPriceRange_ShouldReturnProductsInRange() throws Exception {
         List<Product> products = Arrays.asList(testProduct);
-        when(productService.findProductsByPriceRange(any(BigDecimal.class), any(BigDecimal.class)))
+        when(productService.findProductsByPriceRange(any(BigDecimal.class), any(BigDecimal.class), eq(false), isNull()))
                 .thenReturn(products);
 
         mockMvc.perform(get("/api/v1/products/price-range")
@@ -224,6 +453,100 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].name").value("Test Product"));
 
-        verify(productService).findProductsByPriceRange(any(BigDecimal.class), any(BigDecimal.class));
+        verify(productService).findProductsByPriceRange(any(BigDecimal.class), any(BigDecimal.class), eq(false), isNull());
+    }
+
+    @Test
+    void findByPriceRange_WithLimitAndDescendingSort_ShouldPassThemToService() throws Exception {
+        when(productService.findProductsByPriceRange(any(BigDecimal.class), any(BigDecimal.class), eq(true), eq(5)))
+                .thenReturn(Arrays.asList(testProduct));
+
+        mockMvc.perform(get("/api/v1/products/price-range")
+                .param("minPrice", "50.00")
+                .param("maxPrice", "150.00")
+                .param("limit", "5")
+                .param("sort", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        verify(productService).findProductsByPriceRange(any(BigDecimal.class), any(BigDecimal.class), eq(true), eq(5));
+    }
+
+    @Test
+    void findByPriceRange_WithNonPositiveLimit_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/price-range")
+                .param("minPrice", "50.00")
+                .param("maxPrice", "150.00")
+                .param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void createProducts_WithJsonArray_ShouldStreamPerItemResults() throws Exception {
+        doAnswer(invocation -> {
+            Iterator<Product> products = invocation.getArgument(0);
+            Consumer<BatchItemResult> sink = invocation.getArgument(1);
+            int index = 0;
+            while (products.hasNext()) {
+                Product product = products.next();
+                sink.accept(product.getName().equals("Test Product")
+                        ? BatchItemResult.failure(index, null, BatchItemResult.Status.CONFLICT, "Product already exists")
+                        : BatchItemResult.success(index, 10L + index, BatchItemResult.Status.CREATED));
+                index++;
+            }
+            return null;
+        }).when(productBatchService).createProducts(any(), any());
+
+        Product other = new Product("Other Product", "Other Description", new BigDecimal("5.00"));
+        MvcResult result = mockMvc.perform(post("/api/v1/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(ProductController.APPLICATION_NDJSON_VALUE)
+                .content(objectMapper.writeValueAsString(Arrays.asList(testProduct, other))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("CONFLICT", objectMapper.readTree(lines[0]).get("status").asText());
+        assertEquals(11L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void createProducts_WithMalformedItem_ShouldEndWithMalformedRecord() throws Exception {
+        doAnswer(invocation -> {
+            Iterator<Product> products = invocation.getArgument(0);
+            Consumer<BatchItemResult> sink = invocation.getArgument(1);
+            int index = 0;
+            while (products.hasNext()) {
+                products.next();
+                sink.accept(BatchItemResult.success(index, 10L + index, BatchItemResult.Status.CREATED));
+                index++;
+            }
+            return null;
+        }).when(productBatchService).createProducts(any(), any());
+
+        MvcResult result = mockMvc.perform(post("/api/v1/products/batch")
+                .contentType(ProductController.APPLICATION_NDJSON_VALUE)
+                .accept(ProductController.APPLICATION_NDJSON_VALUE)
+                .content(objectMapper.writeValueAsString(testProduct) + "\n{\"name\": \"Broken\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("CREATED", objectMapper.readTree(lines[0]).get("status").asText());
+        assertEquals("MALFORMED", objectMapper.readTree(lines[1]).get("status").asText());
+        assertEquals(1, objectMapper.readTree(lines[1]).get("index").asInt());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.cache.ProductJsonCache;
+import com.example.productservice.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductJsonHttpMessageConverterTest {
+
+    private ObjectMapper objectMapper;
+
+    private ProductJsonHttpMessageConverter converter;
+
+    private Product laptop;
+
+    private Product keyboard;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ProductJsonCache cache = new ProductJsonCache(objectMapper, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        converter = new ProductJsonHttpMessageConverter(cache, objectMapper);
+        laptop = product(1L, "Gaming Laptop", "1299.99");
+        keyboard = product(2L, "Mechanical Keyboard", "89.50");
+    }
+
+    @Test
+    void write_ShouldMatchJacksonOutputForProductsAndLists() throws IOException {
+        List<Product> products = Arrays.asList(laptop, keyboard);
+
+        assertEquals(objectMapper.writeValueAsString(laptop), write(laptop));
+        assertEquals(objectMapper.writeValueAsString(products), write(products));
+        assertEquals("[]", write(Collections.emptyList()));
+    }
+
+    @Test
+    void write_AfterProductChanges_ShouldEncodeItAgain() throws IOException {
+        write(laptop);
+
+        laptop.setName("Gaming Laptop Pro");
+        laptop.setUpdatedAt(laptop.getUpdatedAt().plusSeconds(1));
+        laptop.setVersion(1L);
+
+        assertEquals(objectMapper.writeValueAsString(laptop), write(laptop));
+    }
+
+    @Test
+    void write_WithOtherElements_ShouldFallBackToJackson() throws IOException {
+        List<Map<String, Object>> rows = Collections.singletonList(Collections.singletonMap("id", 1L));
+
+        assertEquals("[{\"id\":1}]", write(rows));
+    }
+
+    @Test
+    void write_WithNonUtf8Charset_ShouldFallBackToJackson() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(laptop, Product.class, new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_16), message);
+
+        assertEquals(objectMapper.writeValueAsString(laptop), message.getBodyAsString(StandardCharsets.UTF_16));
+
+        MockHttpOutputMessage littleEndian = new MockHttpOutputMessage();
+        converter.write(Arrays.asList(laptop, keyboard), List.class,
+                new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_16LE), littleEndian);
+
+        assertEquals(objectMapper.writeValueAsString(Arrays.asList(laptop, keyboard)),
+                littleEndian.getBodyAsString(StandardCharsets.UTF_16LE));
+    }
+
+    @Test
+    void canWrite_ShouldClaimOnlyProductBodies() {
+        Type products = ResolvableType.forClassWithGenerics(List.class, Product.class).getType();
+        Type rows = ResolvableType.forClassWithGenerics(List.class,
+                ResolvableType.forClassWithGenerics(Map.class, String.class, Object.class)).getType();
+        Type page = ResolvableType.forClassWithGenerics(Page.class, Product.class).getType();
+
+        assertTrue(converter.canWrite(Product.class, Product.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(products, List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(rows, List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(page, Page.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(Map.class, Map.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(Map.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void canRead_ShouldLeaveRequestBodiesToJackson() {
+        assertFalse(converter.canRead(Product.class, null, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(Product.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(Product.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(Product.class, MediaType.parseMediaType("application/x-jackson-smile")));
+    }
+
+    private String write(Object value) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(value, value.getClass(), MediaType.APPLICATION_JSON, message);
+        return message.getBodyAsString();
+    }
+
+    private static Product product(Long id, String name, String price) {
+        Product product = new Product(name, "Description of " + name, new BigDecimal(price));
+        product.setId(id);
+        product.setVersion(0L);
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        product.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 12, 0, 0, 500_000_000));
+        return product;
+    }
+}
\ No newline at end of file
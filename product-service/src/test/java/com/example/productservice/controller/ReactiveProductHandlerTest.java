@@ -0,0 +1,136 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.exception.ProductAlreadyExistsException;
+import com.example.productservice.model.Product;
+import com.example.productservice.repository.ReactiveProductRepository;
+import com.example.productservice.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Validation;
+import java.math.BigDecimal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveProductHandlerTest {
+
+    @Mock
+    private ReactiveProductRepository reactiveProductRepository;
+
+    @Mock
+    private ProductService productService;
+
+    private WebTestClient webTestClient;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveProductHandler handler = new ReactiveProductHandler(reactiveProductRepository, productService,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        webTestClient = WebTestClient.bindToRouterFunction(ReactiveProductRouter.routes(handler)).build();
+        testProduct = new Product("Test Product", "Test Description", new BigDecimal("99.99"));
+        testProduct.setId(1L);
+    }
+
+    @Test
+    void getAllProducts_WithNdjsonAccept_ShouldStreamOneProductPerLine() {
+        Product second = new Product("Second Product", "Second Description", new BigDecimal("10.00"));
+        second.setId(2L);
+        when(reactiveProductRepository.findAll()).thenReturn(Flux.just(testProduct, second));
+
+        webTestClient.get().uri("/api/v1/products")
+                .accept(MediaType.parseMediaType(ProductController.APPLICATION_NDJSON_VALUE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(ProductController.APPLICATION_NDJSON_VALUE)
+                .expectBodyList(Product.class).hasSize(2);
+    }
+
+    @Test
+    void getProductById_WhenMissing_ShouldReturnNotFound() {
+        when(reactiveProductRepository.findById(1L)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/v1/products/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("Product Not Found");
+    }
+
+    @Test
+    void searchProducts_WithoutKeyword_ShouldReturnBadRequest() {
+        webTestClient.get().uri("/api/v1/products/search")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(reactiveProductRepository);
+    }
+
+    @Test
+    void createProduct_ShouldDelegateToProductServiceAndMapConflicts() {
+        when(productService.createProduct(any(Product.class))).thenThrow(new ProductAlreadyExistsException("Test Product"));
+
+        webTestClient.post().uri("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(testProduct)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void createProduct_WithInvalidProduct_ShouldReturnValidationErrors() {
+        Product invalid = new Product("", null, new BigDecimal("-1"));
+
+        webTestClient.post().uri("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(invalid)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.validationErrors.price").exists();
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void getAllProducts_Paginated_ShouldReturnServletPageShape() {
+        when(reactiveProductRepository.findPage(0, 1)).thenReturn(Flux.just(testProduct));
+        when(reactiveProductRepository.count()).thenReturn(Mono.just(3L));
+
+        webTestClient.get().uri("/api/v1/products?paginated=true&page=0&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(1)
+                .jsonPath("$.totalElements").isEqualTo(3)
+                .jsonPath("$.totalPages").isEqualTo(3)
+                .jsonPath("$.number").isEqualTo(0);
+    }
+
+    @Test
+    void getAllProducts_WithNonNumericPage_ShouldReturnBadRequest() {
+        webTestClient.get().uri("/api/v1/products?paginated=true&page=first")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(reactiveProductRepository);
+    }
+
+    @Test
+    void getProductById_WithNonNumericId_ShouldReturnBadRequest() {
+        webTestClient.get().uri("/api/v1/products/abc")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Invalid Request Parameter");
+
+        verifyNoInteractions(reactiveProductRepository);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.productservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private HikariDataSource firstReplica;
+
+    @Mock
+    private HikariDataSource secondReplica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection firstReplicaConnection;
+
+    @Mock
+    private Connection secondReplicaConnection;
+
+    private ReplicaPool replicaPool;
+
+    private ReadWriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        replicaPool = new ReplicaPool(Arrays.asList(firstReplica, secondReplica),
+                ReplicaPool.Selection.ROUND_ROBIN, Duration.ofHours(1));
+        dataSource = new ReadWriteRoutingDataSource(primary, replicaPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadRouting.setPrimaryRequired(false);
+        replicaPool.close();
+    }
+
+    @Test
+    void getConnection_OutsideReadOnlyTransaction_ShouldUsePrimary() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        verifyNoInteractions(firstReplica, secondReplica);
+    }
+
+    @Test
+    void getConnection_InReadOnlyTransaction_ShouldRotateOverReplicas() throws SQLException {
+        when(firstReplica.getConnection()).thenReturn(firstReplicaConnection);
+        when(secondReplica.getConnection()).thenReturn(secondReplicaConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+        assertSame(secondReplicaConnection, dataSource.getConnection());
+        assertSame(firstReplicaConnection, dataSource.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void getConnection_WhenPrimaryRequired_ShouldUsePrimaryForReads() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReadRouting.setPrimaryRequired(true);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        verifyNoInteractions(firstReplica, secondReplica);
+    }
+
+    @Test
+    void getConnection_WhenReplicaIsUnreachable_ShouldEjectItUntilHealthCheckPasses() throws SQLException {
+        when(firstReplica.getConnection())
+                .thenThrow(new SQLTransientConnectionException("replica-1 - Connection is not available",
+                        new SQLException("Connection refused")))
+                .thenReturn(firstReplicaConnection);
+        when(secondReplica.getConnection()).thenReturn(secondReplicaConnection);
+        when(firstReplicaConnection.isValid(anyInt())).thenReturn(true);
+        when(secondReplicaConnection.isValid(anyInt())).thenReturn(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(secondReplicaConnection, dataSource.getConnection());
+        assertSame(secondReplicaConnection, dataSource.getConnection());
+        assertEquals(1, replicaPool.getHealthyCount());
+
+        replicaPool.checkHealth();
+
+        assertEquals(2, replicaPool.getHealthyCount());
+    }
+
+    @Test
+    void getConnection_WhenNoReplicaIsHealthy_ShouldFallBackToPrimary() throws SQLException {
+        when(firstReplica.getConnection()).thenThrow(new SQLNonTransientConnectionException("down"));
+        when(secondReplica.getConnection()).thenThrow(new SQLNonTransientConnectionException("down"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(0, replicaPool.getHealthyCount());
+    }
+
+    @Test
+    void getConnection_WhenReplicaPoolIsExhausted_ShouldTryNextWithoutEjecting() throws SQLException {
+        when(firstReplica.getConnection())
+                .thenThrow(new SQLTransientConnectionException("replica-1 - Connection is not available"));
+        when(secondReplica.getConnection()).thenReturn(secondReplicaConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(secondReplicaConnection, dataSource.getConnection());
+        assertEquals(2, replicaPool.getHealthyCount());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void getConnection_WhenEveryReplicaPoolIsExhausted_ShouldFallBackToPrimary() throws SQLException {
+        when(firstReplica.getConnection()).thenThrow(new SQLTransientConnectionException("busy"));
+        when(secondReplica.getConnection()).thenThrow(new SQLTransientConnectionException("busy"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(2, replicaPool.getHealthyCount());
+    }
+}
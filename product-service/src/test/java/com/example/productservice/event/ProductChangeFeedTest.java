@@ -0,0 +1,227 @@
+package com.example.productservice.event;
+
+import com.example.productservice.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductChangeFeedTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void onProductChanged_ShouldSendNamedEventWithSequenceId() {
+        ProductChangeFeed feed = feed(16, 16, Runnable::run);
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.register(emitter, null);
+
+        feed.onProductChanged(ProductChangedEvent.created(product(1L)));
+        feed.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("event:created"));
+        assertTrue(emitter.events.get(0).contains("\"productId\":1"));
+        assertTrue(emitter.events.get(0).contains("\"name\":\"Product 1\""));
+        assertTrue(emitter.events.get(1).contains("event:deleted"));
+        assertTrue(idOf(emitter.events.get(1)).endsWith(":2"));
+    }
+
+    @Test
+    void register_WithLastEventId_ShouldReplayOnlyMissedChanges() {
+        ProductChangeFeed feed = feed(16, 16, Runnable::run);
+        RecordingEmitter first = new RecordingEmitter();
+        feed.register(first, null);
+        feed.onProductChanged(ProductChangedEvent.created(product(1L)));
+        feed.onProductChanged(ProductChangedEvent.created(product(2L)));
+        feed.onProductChanged(ProductChangedEvent.created(product(3L)));
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        feed.register(resumed, idOf(first.events.get(0)));
+
+        assertEquals(idsOf(first.events.subList(1, 3)), idsOf(resumed.events));
+    }
+
+    @Test
+    void register_WhenChangesFellOutOfLog_ShouldSendReset() {
+        ProductChangeFeed feed = feed(2, 16, Runnable::run);
+        RecordingEmitter first = new RecordingEmitter();
+        feed.register(first, null);
+        for (long id = 1; id <= 4; id++) {
+            feed.onProductChanged(ProductChangedEvent.created(product(id)));
+        }
+
+        RecordingEmitter tooOld = new RecordingEmitter();
+        feed.register(tooOld, idOf(first.events.get(0)));
+        RecordingEmitter otherRun = new RecordingEmitter();
+        feed.register(otherRun, "previous:4");
+
+        assertEquals(1, tooOld.events.size());
+        assertTrue(tooOld.events.get(0).contains("event:reset"));
+        assertEquals(idOf(first.events.get(3)), idOf(tooOld.events.get(0)));
+        assertTrue(otherRun.events.get(0).contains("event:reset"));
+    }
+
+    @Test
+    void onProductChanged_WhenSubscriberFallsBehind_ShouldEvictIt() {
+        List<Runnable> pending = new ArrayList<>();
+        ProductChangeFeed feed = feed(16, 2, pending::add);
+        RecordingEmitter slow = new RecordingEmitter();
+        feed.register(slow, null);
+
+        for (long id = 1; id <= 3; id++) {
+            feed.onProductChanged(ProductChangedEvent.created(product(id)));
+        }
+        assertEquals(0, feed.getSubscriberCount());
+        pending.forEach(Runnable::run);
+
+        assertTrue(slow.completed);
+        assertEquals(1.0, meterRegistry.get("product.changefeed.evicted").counter().count());
+    }
+
+    @Test
+    void onProductChanged_WhenEvictedDuringConcurrentDispatch_ShouldAlwaysCompleteEmitter() throws Exception {
+        ExecutorService dispatcher = Executors.newFixedThreadPool(2);
+        try {
+            ProductChangeFeed feed = feed(16, 1, dispatcher);
+            for (int round = 0; round < 200; round++) {
+                BlockingEmitter emitter = new BlockingEmitter(new CountDownLatch(0));
+                feed.register(emitter, null);
+                // Eviction lands at a different point of the dispatch thread's drain each round
+                for (long id = 1; feed.getSubscriberCount() > 0; id++) {
+                    feed.onProductChanged(ProductChangedEvent.created(product(id)));
+                }
+
+                assertTrue(emitter.completed.await(5, TimeUnit.SECONDS), "round " + round);
+            }
+            assertEquals(200.0, meterRegistry.get("product.changefeed.evicted").counter().count());
+        } finally {
+            dispatcher.shutdownNow();
+        }
+    }
+
+    @Test
+    void checkStalledWrites_ShouldEvictStalledSubscriberAndLendThreadUntilWriteReturns() throws Exception {
+        ThreadPoolExecutor dispatcher = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        try {
+            ProductChangeFeed feed = new ProductChangeFeed(new ObjectMapper().registerModule(new JavaTimeModule()),
+                    16, 16, Duration.ofMinutes(1), Duration.ofMillis(10), dispatcher, null, meterRegistry);
+            CountDownLatch release = new CountDownLatch(1);
+            BlockingEmitter stalled = new BlockingEmitter(release);
+            feed.register(stalled, null);
+            feed.onProductChanged(ProductChangedEvent.created(product(1L)));
+            assertTrue(stalled.writing.await(5, TimeUnit.SECONDS));
+            Thread.sleep(20);
+
+            feed.checkStalledWrites();
+
+            assertEquals(0, feed.getSubscriberCount());
+            assertEquals(2, dispatcher.getCorePoolSize());
+            // The only original dispatch thread is still blocked, yet a healthy subscriber is served
+            BlockingEmitter healthy = new BlockingEmitter(new CountDownLatch(0));
+            feed.register(healthy, null);
+            feed.onProductChanged(ProductChangedEvent.created(product(2L)));
+            assertTrue(healthy.writing.await(5, TimeUnit.SECONDS));
+
+            release.countDown();
+            assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+            assertEquals(1, dispatcher.getCorePoolSize());
+            assertEquals(1.0, meterRegistry.get("product.changefeed.evicted").counter().count());
+        } finally {
+            dispatcher.shutdownNow();
+        }
+    }
+
+    private ProductChangeFeed feed(int replaySize, int subscriberBuffer, Executor dispatcher) {
+        return new ProductChangeFeed(new ObjectMapper().registerModule(new JavaTimeModule()),
+                replaySize, subscriberBuffer, Duration.ofMinutes(1), Duration.ofSeconds(5), dispatcher, null,
+                meterRegistry);
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product("Product " + id, "Description", new BigDecimal("9.99"));
+        product.setId(id);
+        return product;
+    }
+
+    private static String idOf(String event) {
+        for (String line : event.split("\n")) {
+            if (line.startsWith("id:")) {
+                return line.substring(3);
+            }
+        }
+        return null;
+    }
+
+    private static List<String> idsOf(List<String> events) {
+        return events.stream().map(ProductChangeFeedTest::idOf).collect(Collectors.toList());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+
+    // Thread-safe stand-in for a connection; each write waits until release opens
+    private static class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        BlockingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.example.productservice.index;
+
+import com.example.productservice.model.Product;
+import com.example.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// /search answers from the index once it is ready and from the database before; both must match the same products
+@DataJpaTest
+class ProductSearchIndexDatabaseTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        productRepository.findAll().forEach(index::index);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"phone", "GAMING", "gaming keyb", "aming", "4k u", "-inch", "o", " ", "zzz"})
+    void search_ShouldMatchTheSameProductsAsTheDatabase(String keyword) {
+        List<Long> fromDatabase = productRepository.searchByKeyword(keyword).stream()
+                .map(Product::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        List<Long> fromIndex = index.search(keyword).stream().sorted().collect(Collectors.toList());
+
+        assertEquals(fromDatabase, fromIndex);
+    }
+}
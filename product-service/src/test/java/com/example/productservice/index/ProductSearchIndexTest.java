@@ -0,0 +1,60 @@
+package com.example.productservice.index;
+
+import com.example.productservice.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.index(product(1L, "Gaming Laptop", "High-performance gaming laptop with RTX 4070"));
+        index.index(product(2L, "Mechanical Keyboard", "RGB mechanical gaming keyboard"));
+        index.index(product(3L, "4K Monitor", "27-inch 4K UHD monitor for professionals"));
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesCaseInsensitively() {
+        assertEquals(Collections.singletonList(3L), index.search("MONI"));
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        assertEquals(Arrays.asList(1L, 2L), index.search("gaming"));
+    }
+
+    @Test
+    void search_WithSeveralTokens_ShouldRequireAllOfThem() {
+        assertEquals(Collections.singletonList(2L), index.search("gaming keyb"));
+    }
+
+    @Test
+    void index_WhenProductUpdated_ShouldDropOldTokens() {
+        index.index(product(3L, "Curved Display", "Ultrawide"));
+
+        assertTrue(index.search("monitor").isEmpty());
+        assertEquals(Collections.singletonList(3L), index.search("display"));
+    }
+
+    @Test
+    void remove_ShouldDropProductFromResults() {
+        index.remove(1L);
+
+        assertEquals(Collections.singletonList(2L), index.search("gaming"));
+    }
+
+    private static Product product(Long id, String name, String description) {
+        Product product = new Product(name, description, new BigDecimal("10.00"));
+        product.setId(id);
+        return product;
+    }
+}
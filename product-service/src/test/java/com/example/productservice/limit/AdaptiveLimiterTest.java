@@ -0,0 +1,85 @@
+package com.example.productservice.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void tryAcquire_AtLimit_ShouldRejectUntilReleased() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(2, 1, 10, 1.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertTrue(limiter.isSaturated());
+
+        limiter.releaseWithoutSample();
+
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void release_WithSteadyLatencyUnderLoad_ShouldRaiseLimitUpToMax() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 1, 40, 1.5);
+
+        for (int i = 0; i < 500; i++) {
+            saturateAndRelease(limiter, FAST);
+        }
+
+        assertEquals(40, limiter.getLimit());
+    }
+
+    @Test
+    void release_WhenLatencyRises_ShouldLowerLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(50, 5, 200, 1.5);
+        for (int i = 0; i < 50; i++) {
+            saturateAndRelease(limiter, FAST);
+        }
+        int before = limiter.getLimit();
+
+        for (int i = 0; i < 20; i++) {
+            saturateAndRelease(limiter, SLOW);
+        }
+
+        assertTrue(limiter.getLimit() < before, "limit should fall from " + before + ", was " + limiter.getLimit());
+    }
+
+    @Test
+    void release_WhenFailed_ShouldBackOffToMin() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 5, 100, 1.5);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, true);
+        }
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void release_WhenMostlyIdle_ShouldNotRaiseLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 5, 100, 1.5);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    private static void saturateAndRelease(AdaptiveLimiter limiter, long rttNanos) {
+        while (limiter.tryAcquire()) {
+            // fill up to the current limit
+        }
+        limiter.release(rttNanos, false);
+    }
+}
\ No newline at end of file
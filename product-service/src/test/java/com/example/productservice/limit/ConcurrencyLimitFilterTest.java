@@ -0,0 +1,153 @@
+package com.example.productservice.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Map<EndpointClass, AdaptiveLimiter> limiters;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiters = new EnumMap<>(EndpointClass.class);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            limiters.put(endpointClass, new AdaptiveLimiter(1, 1, 1, 1.5));
+        }
+        filter = new ConcurrencyLimitFilter(limiters, Duration.ofSeconds(2), 0.25,
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+    }
+
+    @Test
+    void doFilter_UnderLimit_ShouldPassThroughAndReleasePermit() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(get("/api/v1/products/1"), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+        assertEquals(0, limiters.get(EndpointClass.READS).getInFlight());
+    }
+
+    @Test
+    void doFilter_OverLimit_ShouldRejectWith503AndRetryAfter() throws Exception {
+        assertTrue(limiters.get(EndpointClass.READS).tryAcquire());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(get("/api/v1/products/1"), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("Service Unavailable"));
+        assertEquals(1.0, meterRegistry.get("product.concurrency.rejected").tag("class", "reads").counter().count());
+    }
+
+    @Test
+    void doFilter_WhenWritesSaturated_ShouldShedSearchButAdmitWrites() throws Exception {
+        AdaptiveLimiter writes = new AdaptiveLimiter(2, 1, 2, 1.5);
+        limiters.put(EndpointClass.WRITES, writes);
+        filter = new ConcurrencyLimitFilter(limiters, Duration.ofSeconds(1), 0.25,
+                new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry());
+        assertTrue(writes.tryAcquire());
+
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/products"), write, new MockFilterChain());
+        assertTrue(writes.tryAcquire());
+        MockHttpServletResponse search = new MockHttpServletResponse();
+        filter.doFilter(get("/api/v1/products/search"), search, new MockFilterChain());
+
+        assertEquals(200, write.getStatus());
+        assertEquals(503, search.getStatus());
+    }
+
+    @Test
+    void doFilter_WhenWritesSaturated_ShouldStillAdmitReadsWithinTheirReservedShare() throws Exception {
+        AdaptiveLimiter reads = new AdaptiveLimiter(4, 4, 4, 1.5);
+        limiters.put(EndpointClass.READS, reads);
+        filter = new ConcurrencyLimitFilter(limiters, Duration.ofSeconds(1), 0.25,
+                new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry());
+        assertTrue(limiters.get(EndpointClass.WRITES).tryAcquire());
+
+        MockHttpServletResponse reserved = new MockHttpServletResponse();
+        filter.doFilter(get("/api/v1/products/1"), reserved, new MockFilterChain());
+        assertTrue(reads.tryAcquire());
+        MockHttpServletResponse overReserve = new MockHttpServletResponse();
+        filter.doFilter(get("/api/v1/products/1"), overReserve, new MockFilterChain());
+
+        assertEquals(200, reserved.getStatus());
+        assertEquals(503, overReserve.getStatus());
+    }
+
+    @Test
+    void doFilter_BulkUploads_ShouldNotHoldWritePermitsOrShedReads() throws Exception {
+        MockHttpServletRequest batch = new MockHttpServletRequest("POST", "/api/v1/products/batch");
+        batch.setAsyncSupported(true);
+        // Stands in for a StreamingResponseBody that is still reading the upload
+        MockFilterChain streaming = new MockFilterChain(new HttpServlet() {
+        }, (request, response, chain) -> request.startAsync());
+
+        filter.doFilter(batch, new MockHttpServletResponse(), streaming);
+        MockHttpServletResponse write = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/products"), write, new MockFilterChain());
+        MockHttpServletResponse read = new MockHttpServletResponse();
+        filter.doFilter(get("/api/v1/products/1"), read, new MockFilterChain());
+
+        assertEquals(1, limiters.get(EndpointClass.BULK).getInFlight());
+        assertEquals(0, limiters.get(EndpointClass.WRITES).getInFlight());
+        assertEquals(200, write.getStatus());
+        assertEquals(200, read.getStatus());
+
+        batch.getAsyncContext().complete();
+        assertEquals(0, limiters.get(EndpointClass.BULK).getInFlight());
+    }
+
+    @Test
+    void doFilter_ChangeStream_ShouldNotTakePermit() throws Exception {
+        assertTrue(limiters.get(EndpointClass.READS).tryAcquire());
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(get("/api/v1/products/stream"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void endpointClass_ShouldSeparateCheapReadsFromSearchAndListing() {
+        MockHttpServletRequest page = get("/api/v1/products");
+        page.setParameter("paginated", "true");
+        MockHttpServletRequest cursorPage = get("/api/v1/products");
+        cursorPage.setParameter("after", "abc");
+
+        assertEquals(EndpointClass.WRITES, EndpointClass.of(new MockHttpServletRequest("DELETE", "/api/v1/products/1")));
+        assertEquals(EndpointClass.BULK, EndpointClass.of(new MockHttpServletRequest("PUT", "/api/v1/products/batch")));
+        assertEquals(EndpointClass.BULK, EndpointClass.of(new MockHttpServletRequest("POST", "/api/v1/products/import")));
+        assertEquals(EndpointClass.READS, EndpointClass.of(get("/api/v1/products/1")));
+        assertEquals(EndpointClass.READS, EndpointClass.of(page));
+        assertEquals(EndpointClass.READS, EndpointClass.of(cursorPage));
+        assertEquals(EndpointClass.SEARCH, EndpointClass.of(get("/api/v1/products")));
+        assertEquals(EndpointClass.SEARCH, EndpointClass.of(get("/api/v1/products/search")));
+        assertEquals(EndpointClass.SEARCH, EndpointClass.of(get("/api/v1/products/price-range")));
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.productservice.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from load.* system properties (see the load-test
+ * profile in pom.xml for defaults).
+ */
+final class LoadProfile {
+
+    final int catalogSize;
+    final int ratePerSecond;
+    final Duration warmup;
+    final Duration duration;
+    final int maxConcurrency;
+    final Map<String, Integer> mix;
+    final double p99Millis;
+    final double minThroughputRatio;
+    final double maxErrorRatio;
+    final Duration dbLatency;
+
+    private LoadProfile() {
+        catalogSize = Integer.getInteger("load.catalog-size", 10_000);
+        ratePerSecond = Integer.getInteger("load.rate", 300);
+        warmup = duration("load.warmup", "10s");
+        duration = duration("load.duration", "30s");
+        maxConcurrency = Integer.getInteger("load.max-concurrency", 256);
+        mix = parseMix(System.getProperty("load.mix", "read:60,search:15,price-range:15,write:10"));
+        p99Millis = Double.parseDouble(System.getProperty("load.slo.p99-ms", "250"));
+        minThroughputRatio = Double.parseDouble(System.getProperty("load.slo.min-throughput-ratio", "0.95"));
+        maxErrorRatio = Double.parseDouble(System.getProperty("load.slo.max-error-ratio", "0.01"));
+        dbLatency = duration("load.db-latency", "0ms");
+    }
+
+    static LoadProfile fromSystemProperties() {
+        return new LoadProfile();
+    }
+
+    long intervalNanos() {
+        return 1_000_000_000L / ratePerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "catalog=" + catalogSize + ", rate=" + ratePerSecond + "/s, warmup=" + warmup
+                + ", duration=" + duration + ", db latency=" + dbLatency + ", mix=" + mix + ", slo p99<=" + p99Millis + "ms";
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("load.mix entries must be name:weight, got: " + entry);
+            }
+            weights.put(parts[0].trim(), Integer.valueOf(parts[1].trim()));
+        }
+        return weights;
+    }
+}
\ No newline at end of file
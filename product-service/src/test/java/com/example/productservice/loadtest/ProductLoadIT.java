@@ -0,0 +1,290 @@
+package com.example.productservice.loadtest;
+
+import com.example.productservice.model.Product;
+import com.example.productservice.service.ProductBatchService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.function.Executable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open-model load test: requests are issued on a fixed schedule whatever the
+ * service's response time, and latency is measured from each request's intended
+ * start so queueing (coordinated omission) is not hidden. Runs only under the
+ * load-test Maven profile.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.sql.init.mode=never",
+    "product.batch.chunk-size=5000",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.productservice.loadtest.SimulatedDbLatency",
+    "logging.level.com.example.productservice=WARN",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductLoadIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductLoadIT.class);
+
+    private static final String[] WORDS = {
+        "laptop", "phone", "monitor", "keyboard", "mouse", "headphones", "camera", "speaker",
+        "wireless", "gaming", "portable", "premium", "compact", "bluetooth", "smart", "pro"
+    };
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductBatchService productBatchService;
+
+    private final LoadProfile profile = LoadProfile.fromSystemProperties();
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+    private ExecutorService workers;
+
+    @BeforeAll
+    void setUp() {
+        // HttpURLConnection only keeps this many idle connections per host alive
+        System.setProperty("http.maxConnections", String.valueOf(profile.maxConcurrency));
+        SimulatedDbLatency.disable();
+        productBatchService.createProducts(catalog(profile.catalogSize), result -> { });
+        SimulatedDbLatency.enable(profile.dbLatency);
+        for (Map.Entry<String, Integer> weight : profile.mix.entrySet()) {
+            endpoints.put(weight.getKey(), new Endpoint(weight.getKey(), weight.getValue()));
+        }
+        workers = Executors.newFixedThreadPool(profile.maxConcurrency);
+        logger.warn("Load test: {}, virtual threads: {}", profile, Boolean.getBoolean("product.threads.virtual"));
+    }
+
+    @AfterAll
+    void tearDown() throws InterruptedException {
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void mixedWorkload_ShouldMeetLatencyAndThroughputObjectives() throws Exception {
+        run(profile.warmup);
+        endpoints.values().forEach(Endpoint::reset);
+
+        long started = System.nanoTime();
+        run(profile.duration);
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Histogram total = new Histogram(3);
+        long errors = 0;
+        List<Executable> checks = new ArrayList<>();
+        File reportDir = new File("target/load-test");
+        reportDir.mkdirs();
+        PrintStream summary = System.out;
+        summary.printf("%-12s %8s %8s %9s %9s %9s %9s %7s%n", "endpoint", "count", "rps", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (Endpoint endpoint : endpoints.values()) {
+            Histogram histogram = endpoint.latencies.getIntervalHistogram();
+            total.add(histogram);
+            errors += endpoint.errors.sum();
+            summary.printf("%-12s %8d %8.1f %9.2f %9.2f %9.2f %9.2f %7d%n", endpoint.name, histogram.getTotalCount(),
+                    histogram.getTotalCount() / elapsedSeconds, millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()), endpoint.errors.sum());
+            writeHistogram(new File(reportDir, endpoint.name + ".hlog"), histogram);
+            try (PrintStream hgrm = new PrintStream(new File(reportDir, endpoint.name + ".hgrm"), "UTF-8")) {
+                histogram.outputPercentileDistribution(hgrm, 1_000_000.0);
+            }
+        }
+
+        long completed = total.getTotalCount();
+        double throughput = completed / elapsedSeconds;
+        double p99 = millis(total.getValueAtPercentile(99));
+        double errorRatio = completed == 0 ? 1 : (double) errors / completed;
+        summary.printf("%-12s %8d %8.1f %9.2f %9.2f %9.2f %9.2f %7d%n", "total", completed, throughput,
+                millis(total.getValueAtPercentile(50)), p99, millis(total.getValueAtPercentile(99.9)),
+                millis(total.getMaxValue()), errors);
+
+        checks.add(() -> assertTrue(p99 <= profile.p99Millis,
+                String.format("p99 %.2f ms exceeds SLO of %.2f ms", p99, profile.p99Millis)));
+        checks.add(() -> assertTrue(throughput >= profile.ratePerSecond * profile.minThroughputRatio,
+                String.format("throughput %.1f/s is below %.0f%% of the %d/s target", throughput,
+                        profile.minThroughputRatio * 100, profile.ratePerSecond)));
+        checks.add(() -> assertTrue(errorRatio <= profile.maxErrorRatio,
+                String.format("error ratio %.4f exceeds %.4f", errorRatio, profile.maxErrorRatio)));
+        assertAll(checks);
+    }
+
+    private void run(Duration duration) {
+        long interval = profile.intervalNanos();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        Random random = new Random(7);
+        int totalWeight = endpoints.values().stream().mapToInt(endpoint -> endpoint.weight).sum();
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = pick(random.nextInt(totalWeight));
+            long scheduledAt = intended;
+            int seed = random.nextInt();
+            workers.execute(() -> endpoint.call(scheduledAt, new Random(seed)));
+        }
+    }
+
+    private Endpoint pick(int ticket) {
+        for (Endpoint endpoint : endpoints.values()) {
+            ticket -= endpoint.weight;
+            if (ticket < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Empty load mix");
+    }
+
+    private HttpURLConnection request(Endpoint endpoint, Random random) throws IOException {
+        String base = "http://localhost:" + port + "/api/v1/products";
+        switch (endpoint.name) {
+            case "read":
+                return open(base + "/" + (1 + random.nextInt(profile.catalogSize)), "GET");
+            case "list":
+                return open(base + "?cursor=true&size=20&sortBy=price", "GET");
+            case "search":
+                return open(base + "/search?keyword=" + WORDS[random.nextInt(WORDS.length)], "GET");
+            case "price-range":
+                BigDecimal min = BigDecimal.valueOf(100 + random.nextInt(99_000), 2);
+                return open(base + "/price-range?limit=50&minPrice=" + min + "&maxPrice=" + min.add(BigDecimal.TEN), "GET");
+            case "write":
+                HttpURLConnection connection = open(base, "POST");
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                long n = writes.incrementAndGet();
+                String body = "{\"name\":\"Load " + n + "\",\"description\":\"load test " + WORDS[(int) (n % WORDS.length)]
+                        + "\",\"price\":" + BigDecimal.valueOf(100 + random.nextInt(99_000), 2) + "}";
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+                return connection;
+            default:
+                throw new IllegalArgumentException("Unknown load.mix endpoint: " + endpoint.name);
+        }
+    }
+
+    private static HttpURLConnection open(String url, String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(5_000);
+        connection.setReadTimeout(30_000);
+        return connection;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static void writeHistogram(File file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(file, "UTF-8")) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            writer.outputIntervalHistogram(histogram);
+        }
+    }
+
+    private static Iterator<Product> catalog(int size) {
+        Random random = new Random(42);
+        return new Iterator<Product>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Product next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int n = next++;
+                String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                return new Product("Catalog " + n, description, BigDecimal.valueOf(100 + random.nextInt(99_000), 2));
+            }
+        };
+    }
+
+    private final class Endpoint {
+        private final String name;
+        private final int weight;
+        private final Recorder latencies = new Recorder(TimeUnit.MINUTES.toNanos(1), 3);
+        private final LongAdder errors = new LongAdder();
+
+        private Endpoint(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+
+        private void call(long intendedStart, Random random) {
+            try {
+                HttpURLConnection connection = request(this, random);
+                int status = connection.getResponseCode();
+                InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+                if (body != null) {
+                    // Drain so the connection goes back to the keep-alive pool
+                    byte[] buffer = new byte[8192];
+                    while (body.read(buffer) != -1) {
+                        // discard
+                    }
+                    body.close();
+                }
+                if (status >= 500 || (status >= 400 && status != 404)) {
+                    errors.increment();
+                }
+            } catch (IOException e) {
+                errors.increment();
+            } finally {
+                long latency = System.nanoTime() - intendedStart;
+                latencies.recordValue(Math.min(latency, TimeUnit.MINUTES.toNanos(1)));
+            }
+        }
+
+        private void reset() {
+            latencies.reset();
+            errors.reset();
+        }
+    }
+}
\ No newline at end of file
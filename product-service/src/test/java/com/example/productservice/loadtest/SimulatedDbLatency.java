@@ -0,0 +1,32 @@
+package com.example.productservice.loadtest;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Blocks the calling thread for load.db-latency before every statement, to
+ * compare thread models against a database that is slower than in-memory H2.
+ */
+public class SimulatedDbLatency implements StatementInspector {
+
+    private static volatile long latencyNanos;
+
+    static void enable(Duration latency) {
+        latencyNanos = latency.toNanos();
+    }
+
+    static void disable() {
+        latencyNanos = 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long nanos = latencyNanos;
+        if (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+        }
+        return sql;
+    }
+}
\ No newline at end of file
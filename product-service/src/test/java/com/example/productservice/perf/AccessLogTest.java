@@ -0,0 +1,84 @@
+package com.example.productservice.perf;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogTest {
+
+    private AccessLog accessLog;
+
+    @BeforeEach
+    void setUp() {
+        accessLog = new AccessLog(0.0, "createProduct:1", Duration.ofMillis(50), 100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        accessLog.destroy();
+    }
+
+    @Test
+    void record_WithZeroSampleRate_ShouldStillLogErrorsAndSlowRequests() throws Exception {
+        accessLog.record(finished("getProductById", 200, 0));
+        accessLog.record(finished("getProductById", 500, 0));
+        accessLog.record(finished("searchProducts", 200, 60));
+
+        assertEquals(1, accessLog.getSampledOut());
+        assertLogged(2);
+    }
+
+    @Test
+    void record_ShouldApplyPerOperationRates() throws Exception {
+        accessLog.record(finished("createProduct", 201, 0));
+        accessLog.record(finished("getProductById", 200, 0));
+
+        assertEquals(1, accessLog.getSampledOut());
+        assertLogged(1);
+    }
+
+    @Test
+    void setSampleRate_ShouldTakeEffectForLaterRequests() throws Exception {
+        accessLog.setSampleRate("getProductById", 1.0);
+        accessLog.record(finished("getProductById", 200, 0));
+        accessLog.setSampleRate("getProductById", null);
+        accessLog.record(finished("getProductById", 200, 0));
+
+        assertEquals(1, accessLog.getSampledOut());
+        assertLogged(1);
+        assertThrows(IllegalArgumentException.class, () -> accessLog.setSampleRate(1.5));
+    }
+
+    @Test
+    void format_ShouldWriteOneLogfmtLine() {
+        RequestProfile profile = new RequestProfile("getProductById", "GET", "/api/v1/products/1");
+        profile.addStatement(1_500_000);
+        profile.finish(200);
+
+        String line = AccessLog.format(new AccessLog.Entry(profile, "sampled"));
+
+        assertTrue(line.contains(" method=GET uri=/api/v1/products/1 op=getProductById status=200 "), line);
+        assertTrue(line.contains(" sql_ms=1.500 statements=1 "), line);
+        assertTrue(line.endsWith(" reason=sampled"), line);
+    }
+
+    private void assertLogged(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (accessLog.getLogged() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, accessLog.getLogged());
+        assertEquals(0, accessLog.getDropped());
+    }
+
+    private static RequestProfile finished(String operation, int status, long sleepMillis) throws InterruptedException {
+        RequestProfile profile = new RequestProfile(operation, "GET", "/api/v1/products");
+        Thread.sleep(sleepMillis);
+        profile.finish(status);
+        return profile;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.example.productservice.perf;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestProfilerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RequestProfiler requestProfiler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestProfiler = new RequestProfiler(meterRegistry, 2);
+    }
+
+    @Test
+    void record_ShouldPublishPerOperationMetersAndKeepOnlyRecentProfiles() throws Exception {
+        requestProfiler.record(finished("searchProducts", 3, 0));
+        requestProfiler.record(finished("getProductById", 1, 5));
+        requestProfiler.record(finished("searchProducts", 2, 0));
+
+        assertEquals(2, requestProfiler.getRecentCount());
+        assertEquals(2, meterRegistry.get("product.api.requests").tag("operation", "searchProducts").timer().count());
+        assertEquals(5.0, meterRegistry.get("product.api.statements").tag("operation", "searchProducts")
+                .summary().totalAmount());
+    }
+
+    @Test
+    void slowest_ShouldOrderByTotalTime() throws Exception {
+        requestProfiler.record(finished("fast", 1, 0));
+        requestProfiler.record(finished("slow", 1, 20));
+
+        List<RequestProfile> slowest = requestProfiler.slowest(1);
+
+        assertEquals(1, slowest.size());
+        assertEquals("slow", slowest.get(0).getOperation());
+    }
+
+    @Test
+    void ormMillis_ShouldBeRepositoryTimeNotSpentInSql() {
+        RequestProfile profile = new RequestProfile("searchProducts", "GET", "/api/v1/products/search");
+        profile.addRepositoryCall("ProductRepository.searchByKeyword", 5_000_000);
+        profile.addStatement(2_000_000);
+
+        assertEquals(3.0, profile.getOrmMillis());
+        assertEquals(5.0, profile.getRepositoryMethodMillis().get("ProductRepository.searchByKeyword"));
+    }
+
+    private static RequestProfile finished(String operation, int statements, long sleepMillis) throws InterruptedException {
+        RequestProfile profile = new RequestProfile(operation, "GET", "/api/v1/products");
+        for (int i = 0; i < statements; i++) {
+            profile.addStatement(1_000);
+        }
+        Thread.sleep(sleepMillis);
+        profile.finish(200);
+        return profile;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.example.productservice.perf;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestProfilingInterceptorTest {
+
+    private RequestProfiler requestProfiler;
+
+    private AccessLog accessLog;
+
+    private RequestProfilingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        requestProfiler = new RequestProfiler(new SimpleMeterRegistry(), 10);
+        accessLog = new AccessLog(0.0, "exportProducts:1", Duration.ofMinutes(1), 100);
+        interceptor = new RequestProfilingInterceptor(requestProfiler, accessLog);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        accessLog.destroy();
+    }
+
+    @Test
+    void asyncRequest_ShouldBeAccessLoggedWhenItCompletes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockAsyncContext asyncContext = startAsync(request, response, "exportProducts");
+
+        assertNull(RequestProfile.current());
+        assertEquals(0, accessLog.getLogged() + accessLog.getQueued());
+
+        asyncContext.complete();
+
+        assertLogged(1);
+        assertEquals(0, requestProfiler.getRecentCount());
+    }
+
+    @Test
+    void asyncRequest_ThatBreaksOff_ShouldBeLoggedAsError() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/changes");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockAsyncContext asyncContext = startAsync(request, response, "streamChanges");
+
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onError(new AsyncEvent(asyncContext, request, response, new IOException("Broken pipe")));
+        }
+        asyncContext.complete();
+
+        // Sample rate 0 for streamChanges: logged only because it failed
+        assertLogged(1);
+        assertEquals(0, accessLog.getSampledOut());
+    }
+
+    private MockAsyncContext startAsync(MockHttpServletRequest request, MockHttpServletResponse response,
+                                        String operation) throws Exception {
+        HandlerMethod handler = new HandlerMethod(new Handlers(), Handlers.class.getDeclaredMethod(operation));
+        request.setAsyncSupported(true);
+        interceptor.preHandle(request, response, handler);
+        request.startAsync(request, response);
+        interceptor.afterConcurrentHandlingStarted(request, response, handler);
+        return (MockAsyncContext) request.getAsyncContext();
+    }
+
+    private void assertLogged(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (accessLog.getLogged() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, accessLog.getLogged());
+    }
+
+    static class Handlers {
+
+        void exportProducts() {
+        }
+
+        void streamChanges() {
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.productservice.service;
+
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.model.BatchItemResult;
+import com.example.productservice.model.Product;
+import com.example.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBatchServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ProductBatchService productBatchService;
+
+    @BeforeEach
+    void setUp() {
+        productBatchService = new ProductBatchService(productRepository, entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionManager, eventPublisher, 2);
+    }
+
+    @Test
+    void createProducts_ShouldReportConflictsAndInvalidItemsAndSaveTheRest() {
+        Product existing = new Product("Existing", "Already stored", new BigDecimal("1.00"));
+        Product fresh = new Product("Fresh", "New product", new BigDecimal("2.00"));
+        Product duplicate = new Product("fresh", "Same name, other case", new BigDecimal("3.00"));
+        Product invalid = new Product("X", null, new BigDecimal("-1"));
+        List<Object[]> firstChunkOwners = new ArrayList<>();
+        firstChunkOwners.add(new Object[]{7L, "existing"});
+        List<Object[]> secondChunkOwners = new ArrayList<>();
+        secondChunkOwners.add(new Object[]{100L, "fresh"});
+        when(productRepository.findIdsByLowerCaseNames(anyCollection()))
+                .thenReturn(firstChunkOwners)
+                .thenReturn(secondChunkOwners);
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            long id = 100;
+            for (Product product : products) {
+                product.setId(id++);
+            }
+            return products;
+        });
+
+        List<BatchItemResult> results = new ArrayList<>();
+        productBatchService.createProducts(Arrays.asList(existing, fresh, duplicate, invalid).iterator(), results::add);
+
+        assertEquals(4, results.size());
+        assertEquals(BatchItemResult.Status.CONFLICT, results.get(0).getStatus());
+        assertEquals(BatchItemResult.Status.CREATED, results.get(1).getStatus());
+        assertEquals(100L, results.get(1).getId());
+        // Second chunk sees the row committed by the first one
+        assertEquals(2, results.get(2).getIndex());
+        assertEquals(BatchItemResult.Status.CONFLICT, results.get(2).getStatus());
+        assertEquals(BatchItemResult.Status.INVALID, results.get(3).getStatus());
+        assertTrue(results.get(3).getErrors().containsKey("name"));
+        verify(productRepository, times(2)).findIdsByLowerCaseNames(anyCollection());
+        verify(transactionManager, times(2)).commit(any());
+        verify(eventPublisher, atLeastOnce()).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void deleteProducts_ShouldDeleteExistingIdsInOneStatement() {
+        when(productRepository.findExistingIds(anyCollection())).thenReturn(Collections.singletonList(1L));
+
+        List<BatchItemResult> results = new ArrayList<>();
+        productBatchService.deleteProducts(Arrays.asList(1L, 2L).iterator(), results::add);
+
+        assertEquals(BatchItemResult.Status.DELETED, results.get(0).getStatus());
+        assertEquals(BatchItemResult.Status.NOT_FOUND, results.get(1).getStatus());
+        verify(productRepository).deleteAllByIdInBatch(Collections.singleton(1L));
+        verify(productRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    void updateProducts_AfterFailedItemWithSameName_ShouldLetOwnerKeepItsName() {
+        Product owner = new Product("Shared", "Stored", new BigDecimal("1.00"));
+        owner.setId(5L);
+        Product missing = new Product("Shared", "No such product", new BigDecimal("2.00"));
+        missing.setId(99L);
+        Product resave = new Product("Shared", "Re-saved by its owner", new BigDecimal("3.00"));
+        resave.setId(5L);
+        List<Object[]> owners = new ArrayList<>();
+        owners.add(new Object[]{5L, "shared"});
+        when(productRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(owner));
+        when(productRepository.findIdsByLowerCaseNames(anyCollection())).thenReturn(owners);
+
+        List<BatchItemResult> results = new ArrayList<>();
+        productBatchService.updateProducts(Arrays.asList(missing, resave).iterator(), results::add);
+
+        assertEquals(BatchItemResult.Status.NOT_FOUND, results.get(0).getStatus());
+        assertEquals(BatchItemResult.Status.UPDATED, results.get(1).getStatus());
+        assertEquals("Re-saved by its owner", owner.getDescription());
+    }
+
+    @Test
+    void deleteProducts_WhenInputBreaksMidChunk_ShouldWriteItemsReadBeforeItAndRethrow() {
+        when(productRepository.findExistingIds(anyCollection())).thenReturn(Collections.singletonList(1L));
+        Iterator<Long> ids = new Iterator<Long>() {
+            private boolean first = true;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Long next() {
+                if (first) {
+                    first = false;
+                    return 1L;
+                }
+                throw new IllegalStateException("malformed");
+            }
+        };
+
+        List<BatchItemResult> results = new ArrayList<>();
+        assertThrows(IllegalStateException.class, () -> productBatchService.deleteProducts(ids, results::add));
+
+        assertEquals(1, results.size());
+        assertEquals(BatchItemResult.Status.DELETED, results.get(0).getStatus());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.productservice.service;
+
+import com.example.productservice.model.BatchItemResult;
+import com.example.productservice.model.ImportReport;
+import com.example.productservice.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductBatchService productBatchService;
+
+    private ProductImportService productImportService;
+
+    private final List<Product> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        productImportService = new ProductImportService(productBatchService, new ObjectMapper(),
+                new SimpleMeterRegistry(), 10, 1000);
+    }
+
+    @Test
+    void importProducts_WithCsv_ShouldBindColumnsByHeaderAndReportBadRows() throws Exception {
+        String csv = "price,name,description,ignored\n"
+                + "10.50,Desk Lamp,LED lamp,x\n"
+                + "not-a-number,Broken Row,Bad price,x\n"
+                + "3.00,Mouse Pad,,x\n";
+        createProductsRecordsEachItem();
+
+        ImportReport report = productImportService.importProducts(stream(csv), ProductImportService.Format.CSV, "test.csv");
+
+        assertEquals(3, report.getRows());
+        assertEquals(2, report.getCreated());
+        assertEquals(1, report.getFailed());
+        assertTrue(report.isCompleted());
+        assertEquals(1, report.getErrors().get(0).getIndex());
+        assertTrue(report.getErrors().get(0).getErrors().containsKey("row"));
+        assertEquals(new BigDecimal("10.50"), received.get(0).getPrice());
+        assertEquals("Mouse Pad", received.get(2).getName());
+        assertNull(received.get(2).getDescription());
+    }
+
+    @Test
+    void importProducts_WithNdjson_ShouldStopAtMalformedJson() throws Exception {
+        String ndjson = "{\"name\":\"First\",\"price\":1.00}\n"
+                + "{\"name\":\"Second\",\"price\":2.00}\n"
+                + "{\"name\": oops\n";
+        createProductsRecordsEachItem();
+
+        ImportReport report = productImportService.importProducts(stream(ndjson), ProductImportService.Format.NDJSON, "test.ndjson");
+
+        assertFalse(report.isCompleted());
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    void detect_ShouldUseFileExtensionOrContentType() {
+        assertEquals(ProductImportService.Format.CSV, ProductImportService.Format.detect("dump.csv"));
+        assertEquals(ProductImportService.Format.CSV, ProductImportService.Format.detect("text/csv"));
+        assertEquals(ProductImportService.Format.NDJSON, ProductImportService.Format.detect("application/x-ndjson"));
+        assertEquals(ProductImportService.Format.NDJSON, ProductImportService.Format.detect("dump.jsonl"));
+    }
+
+    // Only the import tests reach the batch service; strict stubs reject the stub anywhere else
+    private void createProductsRecordsEachItem() {
+        doAnswer(invocation -> {
+            Iterator<Product> products = invocation.getArgument(0);
+            Consumer<BatchItemResult> sink = invocation.getArgument(1);
+            int index = 0;
+            while (products.hasNext()) {
+                Product product = products.next();
+                received.add(product);
+                sink.accept(product == null
+                        ? BatchItemResult.invalid(index, null, null)
+                        : BatchItemResult.success(index, (long) index + 1, BatchItemResult.Status.CREATED));
+                index++;
+            }
+            return null;
+        }).when(productBatchService).createProducts(any(), any());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
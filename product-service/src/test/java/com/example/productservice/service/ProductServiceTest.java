@@ -2,23 +2,57 @@ package com.example.productservice.service;
 
 import com.example.productservice.exception.ProductAlreadyExistsException;
 import com.example.productservice.exception.ProductNotFoundException;
+import com.example.productservice.index.ProductPriceIndex;
+import com.example.productservice.index.ProductSearchIndex;
+import com.example.productservice.cache.ProductCache;
+import com.example.productservice.datasource.ReadRouting;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.exception.InvalidRequestParameterException;
+import com.example.productservice.exception.PreconditionFailedException;
+import com.example.productservice.model.CatalogRevision;
+import com.example.productservice.model.CatalogVersion;
+import com.example.productservice.model.CursorPage;
 import com.example.productservice.model.Product;
+import com.example.productservice.model.ProductRevision;
 import com.example.productservice.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -30,13 +64,32 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
-    @InjectMocks
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Spy
+    private ProductSearchIndex searchIndex = new ProductSearchIndex();
+
+    @Spy
+    private ProductPriceIndex priceIndex = new ProductPriceIndex();
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private ProductService productService;
 
     private Product testProduct;
 
     @BeforeEach
     void setUp() {
+        productService = new ProductService(productRepository, entityManager, productCache, eventPublisher,
+                searchIndex, priceIndex, transactionManager, new SimpleMeterRegistry(), 3);
         testProduct = new Product("Test Product", "Test Description", new BigDecimal("99.99"));
         testProduct.setId(1L);
     }
@@ -66,6 +119,47 @@ class ProductServiceTest {
         verify(productRepository).findAll(pageable);
     }
 
+    @Test
+    void getProductsAfter_WhenMoreRowsExist_ShouldReturnCursorForLastRow() {
+        Product secondProduct = new Product("Second Product", "Second Description", new BigDecimal("10.00"));
+        secondProduct.setId(2L);
+        when(productRepository.findPageAfter("price", false, null, null, 2))
+                .thenReturn(Arrays.asList(testProduct, secondProduct));
+
+        CursorPage<Product> page = productService.getProductsAfter(null, 1, "price", false);
+
+        assertEquals(Arrays.asList(testProduct), page.getContent());
+        assertTrue(page.isHasNext());
+
+        ProductCursor cursor = ProductCursor.decode(page.getNextCursor(), "price", false);
+        assertEquals(1L, cursor.getId());
+        assertEquals(new BigDecimal("99.99"), cursor.getSortValue());
+    }
+
+    @Test
+    void getProductsAfter_WithCursorForDifferentSort_ShouldThrowException() {
+        String token = ProductCursor.after(testProduct, "name", false).encode();
+
+        assertThrows(InvalidRequestParameterException.class,
+                () -> productService.getProductsAfter(token, 10, "price", false));
+        verify(productRepository, never()).findPageAfter(any(), anyBoolean(), any(), any(), anyInt());
+    }
+
+    @Test
+    void streamAllProducts_ShouldPassEachProductToConsumerAndDetachIt() {
+        Product secondProduct = new Product("Second Product", "Second Description", new BigDecimal("10.00"));
+        secondProduct.setId(2L);
+        when(productRepository.streamAll()).thenReturn(Stream.of(testProduct, secondProduct));
+
+        List<Product> consumed = new ArrayList<>();
+        long count = productService.streamAllProducts(consumed::add);
+
+        assertEquals(2, count);
+        assertEquals(Arrays.asList(testProduct, secondProduct), consumed);
+        verify(entityManager).detach(testProduct);
+        verify(entityManager).detach(secondProduct);
+    }
+
     @Test
     void getProductById_WhenProductExists_ShouldReturnProduct() {
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
@@ -76,6 +170,37 @@ class ProductServiceTest {
         verify(productRepository).findById(1L);
     }
 
+    @Test
+    void getProductById_WhenCalledTwice_ShouldServeSecondCallFromCache() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        productService.getProductById(1L);
+        Product result = productService.getProductById(1L);
+
+        assertSame(testProduct, result);
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void getProductById_AfterProductUpdated_ShouldReloadFromRepository() {
+        testProduct.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        testProduct.setVersion(0L);
+        Product updatedProduct = new Product("Test Product", "Updated Description", new BigDecimal("99.99"));
+        updatedProduct.setId(1L);
+        updatedProduct.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 5));
+        updatedProduct.setVersion(1L);
+        when(productRepository.findById(1L))
+                .thenReturn(Optional.of(testProduct))
+                .thenReturn(Optional.of(updatedProduct));
+        productService.getProductById(1L);
+
+        productCache.onProductChanged(ProductChangedEvent.updated(updatedProduct));
+        Product result = productService.getProductById(1L);
+
+        assertSame(updatedProduct, result);
+        verify(productRepository, times(2)).findById(1L);
+    }
+
     @Test
     void getProductById_WhenProductNotExists_ShouldThrowException() {
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
@@ -86,23 +211,29 @@ class ProductServiceTest {
 
     @Test
     void createProduct_WhenProductNameNotExists_ShouldCreateProduct() {
-        when(productRepository.existsByNameIgnoreCase(testProduct.getName())).thenReturn(false);
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(testProduct);
 
         Product result = productService.createProduct(testProduct);
 
         assertEquals(testProduct.getName(), result.getName());
-        verify(productRepository).existsByNameIgnoreCase(testProduct.getName());
-        verify(productRepository).save(testProduct);
+        verify(productRepository).saveAndFlush(testProduct);
+        verify(productRepository, never()).existsByNameIgnoreCase(anyString());
     }
 
     @Test
     void createProduct_WhenProductNameExists_ShouldThrowException() {
-        when(productRepository.existsByNameIgnoreCase(testProduct.getName())).thenReturn(true);
+        when(productRepository.saveAndFlush(any(Product.class))).thenThrow(nameKeyViolation());
 
         assertThrows(ProductAlreadyExistsException.class, () -> productService.createProduct(testProduct));
-        verify(productRepository).existsByNameIgnoreCase(testProduct.getName());
-        verify(productRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void createProduct_WhenOtherConstraintFails_ShouldPropagate() {
+        when(productRepository.saveAndFlush(any(Product.class)))
+                .thenThrow(new DataIntegrityViolationException("NULL not allowed for column \"PRICE\""));
+
+        assertThrows(DataIntegrityViolationException.class, () -> productService.createProduct(testProduct));
     }
 
     @Test
@@ -112,16 +243,21 @@ class ProductServiceTest {
         Product updatedProduct = new Product("New Name", "New Description", new BigDecimal("100.00"));
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
-        when(productRepository.existsByNameIgnoreCase("New Name")).thenReturn(false);
-        when(productRepository.save(any(Product.class))).thenReturn(existingProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(existingProduct);
 
         Product result = productService.updateProduct(1L, updatedProduct);
 
         assertEquals("New Name", result.getName());
+        assertEquals("new name", result.getNameKey());
         assertEquals("New Description", result.getDescription());
         assertEquals(new BigDecimal("100.00"), result.getPrice());
         verify(productRepository).findById(1L);
-        verify(productRepository).save(existingProduct);
+        verify(productRepository).saveAndFlush(existingProduct);
+
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ProductChangedEvent.Type.UPDATED, event.getValue().getType());
+        assertEquals(1L, event.getValue().getProductId());
     }
 
     @Test
@@ -130,7 +266,7 @@ class ProductServiceTest {
 
         assertThrows(ProductNotFoundException.class, () -> productService.updateProduct(1L, testProduct));
         verify(productRepository).findById(1L);
-        verify(productRepository, never()).save(any());
+        verify(productRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -140,11 +276,98 @@ class ProductServiceTest {
         Product updatedProduct = new Product("Existing Name", "New Description", new BigDecimal("100.00"));
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
-        when(productRepository.existsByNameIgnoreCase("Existing Name")).thenReturn(true);
+        when(productRepository.saveAndFlush(any(Product.class))).thenThrow(nameKeyViolation());
 
         assertThrows(ProductAlreadyExistsException.class, () -> productService.updateProduct(1L, updatedProduct));
         verify(productRepository).findById(1L);
-        verify(productRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateProduct_WhenVersionConflicts_ShouldRetryAgainstFreshRead() {
+        Product stale = new Product("Old Name", "Old Description", new BigDecimal("50.00"));
+        stale.setId(1L);
+        Product fresh = new Product("Old Name", "Changed elsewhere", new BigDecimal("60.00"));
+        fresh.setId(1L);
+        Product updatedProduct = new Product("New Name", "New Description", new BigDecimal("100.00"));
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(stale), Optional.of(fresh));
+        when(productRepository.saveAndFlush(any(Product.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L))
+                .thenReturn(fresh);
+
+        Product result = productService.updateProduct(1L, updatedProduct);
+
+        assertSame(fresh, result);
+        assertEquals("New Description", result.getDescription());
+        verify(productRepository, times(2)).findById(1L);
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void updateProduct_WhenConflictsPersist_ShouldGiveUpAfterMaxAttempts() {
+        when(productRepository.findById(1L)).thenAnswer(invocation -> {
+            Product current = new Product("Old Name", "Old Description", new BigDecimal("50.00"));
+            current.setId(1L);
+            return Optional.of(current);
+        });
+        when(productRepository.saveAndFlush(any(Product.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> productService.updateProduct(1L, testProduct));
+        verify(productRepository, times(3)).saveAndFlush(any(Product.class));
+    }
+
+    @Test
+    void updateProduct_WhenPreconditionFails_ShouldThrowWithoutSaving() {
+        Product existingProduct = new Product("Old Name", "Old Description", new BigDecimal("50.00"));
+        existingProduct.setId(1L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> productService.updateProduct(1L, testProduct, current -> false));
+        verify(productRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void findProductRevision_WhenCached_ShouldNotQueryRepository() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        testProduct.setUpdatedAt(updatedAt);
+        testProduct.setVersion(4L);
+        productCache.put(testProduct);
+
+        ProductRevision revision = productService.findProductRevision(1L).orElseThrow(AssertionError::new);
+
+        assertEquals(4L, revision.getVersion());
+        assertEquals(updatedAt, revision.getUpdatedAt());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getLastKnownCatalogRevision_ShouldRequeryOnlyAfterAChange() {
+        when(productRepository.findCatalogRevision())
+                .thenReturn(new CatalogRevision(1L, 1L, 0L))
+                .thenReturn(new CatalogRevision(1L, 1L, 1L));
+
+        assertEquals(0L, productService.getLastKnownCatalogRevision().getVersionSum());
+        assertEquals(0L, productService.getLastKnownCatalogRevision().getVersionSum());
+        productService.onProductChanged(ProductChangedEvent.updated(testProduct));
+
+        assertEquals(1L, productService.getLastKnownCatalogRevision().getVersionSum());
+        verify(productRepository, times(2)).findCatalogRevision();
+    }
+
+    @Test
+    void getCatalogVersion_ShouldCombineCountAndNewestUpdate() {
+        LocalDateTime newest = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(productRepository.findCatalogVersion())
+                .thenReturn(Collections.singletonList(new Object[]{3L, newest}));
+
+        CatalogVersion version = productService.getCatalogVersion();
+
+        assertEquals(3L, version.getCount());
+        assertEquals(ProductChangedEvent.versionOf(newest), version.getLastUpdated());
     }
 
     @Test
@@ -155,6 +378,7 @@ class ProductServiceTest {
 
         verify(productRepository).existsById(1L);
         verify(productRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
     }
 
     @Test
@@ -178,17 +402,138 @@ class ProductServiceTest {
         verify(productRepository).searchByKeyword("test");
     }
 
+    @Test
+    void searchProducts_WhenIndexReady_ShouldReturnRankedProductsWithoutScanning() {
+        Product nameMatch = new Product("Gaming Laptop", "Fast", new BigDecimal("1299.99"));
+        nameMatch.setId(2L);
+        Product descriptionMatch = new Product("Mouse", "Pairs well with a gaming rig", new BigDecimal("49.99"));
+        descriptionMatch.setId(3L);
+        searchIndex.index(descriptionMatch);
+        searchIndex.index(nameMatch);
+        searchIndex.markReady();
+        when(productRepository.findAllById(Arrays.asList(2L, 3L)))
+                .thenReturn(Arrays.asList(descriptionMatch, nameMatch));
+
+        List<Product> result = productService.searchProducts("GAM");
+
+        assertEquals(Arrays.asList(nameMatch, descriptionMatch), result);
+        verify(productRepository, never()).searchByKeyword(any());
+    }
+
+    @Test
+    void searchProductFields_WhenIndexReady_ShouldProjectCachedProductsAndQueryOnlyMisses() {
+        Product cached = new Product("Gaming Laptop", "Fast", new BigDecimal("1299.99"));
+        cached.setId(2L);
+        Product uncached = new Product("Gaming Mouse", "Light", new BigDecimal("49.99"));
+        uncached.setId(3L);
+        searchIndex.index(cached);
+        searchIndex.index(uncached);
+        searchIndex.markReady();
+        productCache.put(cached);
+        Set<String> fields = ProductFields.parse("name,price");
+        Map<String, Object> uncachedRow = ProductFields.project(uncached, fields);
+        when(productRepository.findFields(eq(fields), any(), eq(Sort.unsorted()), eq(0L), eq(0)))
+                .thenReturn(new ArrayList<>(Collections.singletonList(uncachedRow)));
+
+        List<Map<String, Object>> result = productService.searchProductFields("gaming", fields);
+
+        assertEquals(2, result.size());
+        assertEquals(Arrays.asList("id", "name", "price"), new ArrayList<>(result.get(0).keySet()));
+        assertTrue(result.contains(ProductFields.project(cached, fields)));
+        assertTrue(result.contains(uncachedRow));
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getProductFieldsAfter_ShouldSelectSortKeyForCursorButNotReturnIt() {
+        Set<String> fields = ProductFields.parse("name");
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", id);
+            row.put("name", "Product " + id);
+            row.put("price", new BigDecimal(id + "0.00"));
+            rows.add(row);
+        }
+        when(productRepository.findFieldsAfter(eq(new LinkedHashSet<>(Arrays.asList("id", "name", "price"))),
+                eq("price"), eq(false), isNull(), isNull(), eq(3))).thenReturn(rows);
+
+        CursorPage<Map<String, Object>> page = productService.getProductFieldsAfter(null, 2, "price", false, fields);
+
+        assertEquals(2, page.getContent().size());
+        assertFalse(page.getContent().get(0).containsKey("price"));
+        ProductCursor next = ProductCursor.decode(page.getNextCursor(), "price", false);
+        assertEquals(2L, next.getId());
+        assertEquals(new BigDecimal("20.00"), next.getSortValue());
+    }
+
     @Test
     void findProductsByPriceRange_ShouldReturnProductsInRange() {
         List<Product> products = Arrays.asList(testProduct);
         BigDecimal minPrice = new BigDecimal("50.00");
         BigDecimal maxPrice = new BigDecimal("150.00");
-        when(productRepository.findByPriceBetween(minPrice, maxPrice)).thenReturn(products);
+        when(productRepository.findByPriceBetween(eq(minPrice), eq(maxPrice), any(Sort.class))).thenReturn(products);
 
         List<Product> result = productService.findProductsByPriceRange(minPrice, maxPrice);
 
         assertEquals(1, result.size());
         assertEquals(testProduct.getName(), result.get(0).getName());
-        verify(productRepository).findByPriceBetween(minPrice, maxPrice);
+        verify(productRepository).findByPriceBetween(eq(minPrice), eq(maxPrice), any(Sort.class));
+    }
+
+    @Test
+    void findProductsByPriceRange_WhenIndexReady_ShouldUseIndexOrderAndLimit() {
+        Product cheap = new Product("Cheap", "Cheap product", new BigDecimal("60.00"));
+        cheap.setId(2L);
+        Product pricey = new Product("Pricey", "Pricey product", new BigDecimal("140.00"));
+        pricey.setId(3L);
+        Product outOfRange = new Product("Luxury", "Luxury product", new BigDecimal("999.00"));
+        outOfRange.setId(4L);
+        priceIndex.index(cheap);
+        priceIndex.index(testProduct);
+        priceIndex.index(pricey);
+        priceIndex.index(outOfRange);
+        priceIndex.markReady();
+        when(productRepository.findAllById(Arrays.asList(3L, 1L))).thenReturn(Arrays.asList(testProduct, pricey));
+
+        List<Product> result = productService.findProductsByPriceRange(
+                new BigDecimal("50.00"), new BigDecimal("150.00"), true, 2);
+
+        assertEquals(Arrays.asList(pricey, testProduct), result);
+        verify(productRepository, never()).findByPriceBetween(any(), any(), any(Sort.class));
+    }
+
+    private static DataIntegrityViolationException nameKeyViolation() {
+        return new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException("Unique index or primary key violation: \"PUBLIC.UK_PRODUCTS_NAME_KEY_INDEX_F\""));
+    }
+
+    @Test
+    void searchProducts_WhenPrimaryRequired_ShouldNotJoinInFlightSearch() throws Exception {
+        Product fresh = new Product("Test Product", "Renamed on the primary", new BigDecimal("99.99"));
+        fresh.setId(1L);
+        CountDownLatch leaderLoading = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        when(productRepository.searchByKeyword("test"))
+                .thenAnswer(invocation -> {
+                    leaderLoading.countDown();
+                    releaseLeader.await(5, TimeUnit.SECONDS);
+                    return Collections.singletonList(testProduct);
+                })
+                .thenReturn(Collections.singletonList(fresh));
+        ExecutorService leader = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<Product>> replicaRead = leader.submit(() -> productService.searchProducts("test"));
+            assertTrue(leaderLoading.await(5, TimeUnit.SECONDS));
+
+            List<Product> fenced = ReadRouting.onPrimary(() -> productService.searchProducts("Test"));
+
+            assertSame(fresh, fenced.get(0));
+            releaseLeader.countDown();
+            assertSame(testProduct, replicaRead.get(5, TimeUnit.SECONDS).get(0));
+        } finally {
+            releaseLeader.countDown();
+            leader.shutdownNow();
+        }
     }
-}
\ No newline at end of file
+}
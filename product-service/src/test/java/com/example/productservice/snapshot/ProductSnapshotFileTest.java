@@ -0,0 +1,83 @@
+package com.example.productservice.snapshot;
+
+import com.example.productservice.model.CatalogVersion;
+import com.example.productservice.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_ShouldReturnEveryProductWrittenWithItsCatalogVersion() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        Product laptop = product(1L, "Gaming Laptop", "RTX 4070", "1299.99");
+        Product cable = product(2L, "USB Cable", null, "4.5");
+
+        try (ProductSnapshotFile.Writer writer = ProductSnapshotFile.create(file, new CatalogVersion(2, 42L))) {
+            writer.append(laptop);
+            writer.append(cable);
+            assertEquals(2, writer.commit());
+        }
+
+        ProductSnapshotFile.Snapshot snapshot = ProductSnapshotFile.read(file);
+        List<Product> read = new ArrayList<>();
+        snapshot.forEach(read::add);
+
+        assertEquals(2, snapshot.getRecordCount());
+        assertEquals(2, snapshot.getCatalogVersion().getCount());
+        assertEquals(42L, snapshot.getCatalogVersion().getLastUpdated());
+        assertEquals(2, read.size());
+        assertEquals(laptop.getId(), read.get(0).getId());
+        assertEquals("Gaming Laptop", read.get(0).getName());
+        assertEquals(new BigDecimal("1299.99"), read.get(0).getPrice());
+        assertEquals(laptop.getUpdatedAt(), read.get(0).getUpdatedAt());
+        assertEquals(3L, read.get(0).getVersion());
+        assertNull(read.get(1).getDescription());
+        assertEquals(new BigDecimal("4.5"), read.get(1).getPrice());
+    }
+
+    @Test
+    void create_WithoutCommit_ShouldLeaveNoSnapshotBehind() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+
+        try (ProductSnapshotFile.Writer writer = ProductSnapshotFile.create(file, new CatalogVersion(1, 1L))) {
+            writer.append(product(1L, "Gaming Laptop", "RTX 4070", "1299.99"));
+        }
+
+        assertFalse(Files.exists(file));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void read_WithForeignFile_ShouldFail() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        Files.write(file, new byte[64]);
+
+        assertThrows(IOException.class, () -> ProductSnapshotFile.read(file));
+    }
+
+    private static Product product(Long id, String name, String description, String price) {
+        Product product = new Product(name, description, new BigDecimal(price));
+        product.setId(id);
+        product.setVersion(3L);
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000));
+        product.setUpdatedAt(LocalDateTime.of(2024, 2, 1, 12, 0, 0, 654_321_000));
+        return product;
+    }
+}
\ No newline at end of file